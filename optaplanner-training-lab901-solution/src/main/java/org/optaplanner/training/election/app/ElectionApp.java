@@ -16,50 +16,124 @@
 
 package org.optaplanner.training.election.app;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.File;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
 import org.optaplanner.core.api.solver.SolverFactory;
 import org.optaplanner.training.election.domain.Election;
 import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.optional.solver.ElectionBatchSolver;
+import org.optaplanner.training.election.optional.solver.ElectionDynamicProgrammingSolver;
+import org.optaplanner.training.election.optional.solver.ElectionSensitivityAnalyzer;
+import org.optaplanner.training.election.persistence.ElectionSolutionFileIO;
 
 public class ElectionApp {
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("batch")) {
+            File inputDir = new File(args.length > 1 ? args[1] : "data/election/import");
+            solveBatch(inputDir);
+            return;
+        }
         Election election = readElection();
+        if (args.length > 0 && args[0].equals("sensitivity")) {
+            int sampleCount = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+            analyzeSensitivity(election, sampleCount);
+            return;
+        }
 
         // LAB-SOLUTION-START
-        SolverFactory<Election> solverFactory = SolverFactory.createFromXmlResource(
-                "org/optaplanner/training/election/solver/electionSolverConfig.xml");
-        election = solverFactory.buildSolver().solve(election);
+        if (args.length > 0 && args[0].equals("exact")) {
+            // Optional: the exact solution, as a baseline for the metaheuristics
+            long startTimeMillis = System.currentTimeMillis();
+            election = new ElectionDynamicProgrammingSolver().solve(election);
+            System.out.println("Solved exactly in " + (System.currentTimeMillis() - startTimeMillis)
+                    + " ms with score (" + election.getScore() + ").");
+        } else {
+            SolverFactory<Election> solverFactory = SolverFactory.createFromXmlResource(
+                    "org/optaplanner/training/election/solver/electionSolverConfig.xml");
+            election = solverFactory.buildSolver().solve(election);
+        }
         // LAB-SOLUTION-END
 
         printElection(election);
     }
 
-    private static Election readElection() {
-        Path inputFile = Paths.get("data/election/import/president2016.txt");
-        try (Stream<String> stream = Files.lines(inputFile)) {
-            List<FederalState> federalStateList = stream
-                    .filter((line) -> !line.isEmpty() && !line.startsWith("#"))
-                    .map((line) -> {
-                        String[] tokens = line.split(",");
-                        if (tokens.length != 3) {
-                            throw new IllegalStateException("The line (" + line + ") does not have 3 tokens.");
-                        }
-                        return new FederalState(tokens[0], Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
-                    }).collect(Collectors.toList());
-            return new Election(federalStateList);
-        } catch (IOException | NumberFormatException e) {
-            throw new IllegalStateException("Reading inputFile (" + inputFile + ") failed.", e);
-        }
+    /**
+     * Optional: solve all scenarios of a directory concurrently and compare them.
+     * @param inputDir never null
+     */
+    private static void solveBatch(File inputDir) {
+        SolverFactory<Election> solverFactory = SolverFactory.createFromXmlResource(
+                "org/optaplanner/training/election/solver/electionSolverConfig.xml");
+        Map<File, Election> electionMap = new ElectionBatchSolver(solverFactory,
+                Runtime.getRuntime().availableProcessors()).solveAll(inputDir);
 
+        System.out.println("Scenarios");
+        System.out.println("=========");
+        System.out.printf("%-30s %3s %11s %13s %7s\n", "Scenario", "EC", "Minimum", "Voters", "Ratio");
+        electionMap.forEach((inputFile, election) -> {
+            List<FederalState> gamerFederalStateList = election.getFederalStateList().stream()
+                    .filter((federalState) -> Election.GAMER_CANDIDATE.equals(federalState.getWinningCandidate()))
+                    .collect(Collectors.toList());
+            int electoralVotes = gamerFederalStateList.stream().mapToInt(FederalState::getElectoralVotes).sum();
+            int candidateCount = election.getCandidates().length;
+            long minimumPopulation = gamerFederalStateList.stream()
+                    .mapToLong((federalState) -> federalState.getMinimumPluralityPopulation(candidateCount)).sum();
+            long populationTotal = election.getFederalStateList().stream()
+                    .mapToLong(FederalState::getPopulation).sum();
+            System.out.printf("%-30s %3d %,11d %,13d %6.2f%%\n",
+                    inputFile.getName(),
+                    electoralVotes,
+                    minimumPopulation,
+                    populationTotal,
+                    minimumPopulation * 100.0 / populationTotal);
+        });
+    }
+
+    /**
+     * Optional: how often is each state in the gamer candidate's coalition
+     * if every population is uncertain by plus or minus 2%?
+     * @param election never null
+     * @param sampleCount {@code >= 1}
+     */
+    private static void analyzeSensitivity(Election election, int sampleCount) {
+        SolverFactory<Election> baseSolverFactory = SolverFactory.createFromXmlResource(
+                "org/optaplanner/training/election/solver/electionSolverConfig.xml");
+        Election baseElection = baseSolverFactory.buildSolver().solve(election);
+        SolverFactory<Election> sampleSolverFactory = SolverFactory.createFromXmlResource(
+                "org/optaplanner/training/election/optional/solver/electionSensitivitySolverConfig.xml");
+        long startTimeMillis = System.currentTimeMillis();
+        int[] gamerWinCounts = new ElectionSensitivityAnalyzer(sampleSolverFactory,
+                Runtime.getRuntime().availableProcessors()).analyze(baseElection, sampleCount, 0.02, 37L);
+        long timeMillisSpent = System.currentTimeMillis() - startTimeMillis;
+
+        System.out.println("Sensitivity");
+        System.out.println("===========");
+        List<FederalState> federalStateList = baseElection.getFederalStateList();
+        IntStream.range(0, federalStateList.size()).boxed()
+                .sorted(Comparator.comparing((Integer i) -> -gamerWinCounts[i])
+                        .thenComparing(federalStateList::get, Comparator.comparing(FederalState::getName)))
+                .forEach((i) -> {
+                    FederalState federalState = federalStateList.get(i);
+                    System.out.printf("%-20s %3d EC: in %6.2f%% of the samples%s.\n",
+                            federalState.getName(),
+                            federalState.getElectoralVotes(),
+                            gamerWinCounts[i] * 100.0 / sampleCount,
+                            Election.GAMER_CANDIDATE.equals(federalState.getWinningCandidate())
+                                    ? " (in the base solution)" : "");
+                });
+        System.out.println("");
+        System.out.printf("Solved %d samples in %d ms (%d samples per second).\n",
+                sampleCount, timeMillisSpent, sampleCount * 1000L / Math.max(timeMillisSpent, 1L));
+    }
+
+    private static Election readElection() {
+        return new ElectionSolutionFileIO().read(new File("data/election/import/president2016.txt"));
     }
 
     private static void printElection(Election election) {
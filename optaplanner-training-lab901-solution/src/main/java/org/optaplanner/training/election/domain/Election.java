@@ -16,6 +16,7 @@
 
 package org.optaplanner.training.election.domain;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
@@ -31,10 +32,29 @@ public class Election {
     // The candidate that games the system to win
     public static final String GAMER_CANDIDATE = "Gamer candidate";
 
+    /**
+     * @param candidateCount {@code >= 2}
+     * @return never null, the {@link #NORMAL_CANDIDATE}, the {@link #GAMER_CANDIDATE}
+     * and more candidates, for a primary
+     */
+    public static String[] createCandidates(int candidateCount) {
+        if (candidateCount < 2) {
+            throw new IllegalArgumentException("The candidateCount (" + candidateCount + ") must be at least 2.");
+        }
+        String[] candidates = new String[candidateCount];
+        candidates[0] = NORMAL_CANDIDATE;
+        candidates[1] = GAMER_CANDIDATE;
+        for (int i = 2; i < candidateCount; i++) {
+            candidates[i] = "Candidate " + (i + 1);
+        }
+        return candidates;
+    }
+
     @ValueRangeProvider(id = "candidateRange")
-    private String[] candidates = new String[]{NORMAL_CANDIDATE, GAMER_CANDIDATE};
+    private String[] candidates;
     @PlanningEntityCollectionProperty
     private List<FederalState> federalStateList;
+    private int electoralVotesToWin;
 
     @PlanningScore
     private HardSoftScore score;
@@ -42,16 +62,63 @@ public class Election {
     private Election() {
     }
 
+    /**
+     * The gamer candidate needs a majority of the electoral votes to win, so 270 of 538.
+     * @param federalStateList never null
+     */
     public Election(List<FederalState> federalStateList) {
+        this(federalStateList, calculateMajority(federalStateList));
+    }
+
+    /**
+     * @param federalStateList never null
+     * @param electoralVotesToWin {@code >= 1}, for example a supermajority
+     */
+    public Election(List<FederalState> federalStateList, int electoralVotesToWin) {
+        this(federalStateList, electoralVotesToWin, createCandidates(2));
+    }
+
+    /**
+     * @param federalStateList never null
+     * @param electoralVotesToWin {@code >= 1}, for example a supermajority
+     * @param candidates never null, contains the {@link #GAMER_CANDIDATE}, see {@link #createCandidates(int)}
+     */
+    public Election(List<FederalState> federalStateList, int electoralVotesToWin, String[] candidates) {
+        if (!Arrays.asList(candidates).contains(GAMER_CANDIDATE)) {
+            throw new IllegalArgumentException("The candidates (" + Arrays.toString(candidates)
+                    + ") do not contain the gamer candidate (" + GAMER_CANDIDATE + ").");
+        }
         this.federalStateList = federalStateList;
+        this.electoralVotesToWin = electoralVotesToWin;
+        this.candidates = candidates;
+    }
+
+    public static int calculateMajority(List<FederalState> federalStateList) {
+        int electoralVotesTotal = federalStateList.stream().mapToInt(FederalState::getElectoralVotes).sum();
+        return (electoralVotesTotal / 2) + 1;
+    }
+
+    /**
+     * @return never null, at least 2
+     */
+    public String[] getCandidates() {
+        return candidates;
     }
 
     public List<FederalState> getFederalStateList() {
         return federalStateList;
     }
 
+    public int getElectoralVotesToWin() {
+        return electoralVotesToWin;
+    }
+
     public HardSoftScore getScore() {
         return score;
     }
 
+    public void setScore(HardSoftScore score) {
+        this.score = score;
+    }
+
 }
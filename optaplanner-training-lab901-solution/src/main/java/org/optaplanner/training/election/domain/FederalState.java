@@ -63,6 +63,15 @@ public class FederalState {
         return (population / 2) + 1;
     }
 
+    /**
+     * Against opponents that split the other votes evenly, a plurality suffices to win.
+     * @param candidateCount {@code >= 2}
+     * @return {@link #getMinimumMajorityPopulation()} for 2 candidates
+     */
+    public int getMinimumPluralityPopulation(int candidateCount) {
+        return (population / candidateCount) + 1;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.benchmark;
+
+import org.optaplanner.benchmark.api.PlannerBenchmark;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+
+/**
+ * Benchmarks the String domain first and then the primitive domain variant, in 2 separate reports,
+ * because the benchmarker loads every input file only once, as 1 solution class.
+ * Compare the score calculation speed of the solver benchmarks with the same moves across both reports.
+ */
+public class ElectionBenchmarkApp {
+
+    public static final String BENCHMARK_CONFIG
+            = "org/optaplanner/training/election/optional/benchmark/electionBenchmarkConfig.xml";
+    public static final String PRIMITIVE_BENCHMARK_CONFIG
+            = "org/optaplanner/training/election/optional/benchmark/primitiveElectionBenchmarkConfig.xml";
+
+    public static void main(String[] args) {
+        for (String benchmarkConfig : new String[]{BENCHMARK_CONFIG, PRIMITIVE_BENCHMARK_CONFIG}) {
+            PlannerBenchmarkFactory plannerBenchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource(
+                    benchmarkConfig);
+            PlannerBenchmark plannerBenchmark = plannerBenchmarkFactory.buildPlannerBenchmark();
+            plannerBenchmark.benchmark();
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.optional.solver.ElectionIncrementalScoreCalculator;
+import org.optaplanner.training.election.persistence.ElectionSolutionFileIO;
+
+/**
+ * Measures the score calculation speed of {@link ElectionIncrementalScoreCalculator}
+ * for primaries of 2 to 8 candidates, to show that it doesn't degrade with the number of candidates.
+ * <p>
+ * Like a change move, every step changes the winning candidate of a random federal state,
+ * notifies the calculator before and after and calculates the score.
+ * Run it with {@code [inputFile] [stepCount]}.
+ */
+public class ElectionCandidateCountBenchmarkApp {
+
+    private static final int MINIMUM_CANDIDATE_COUNT = 2;
+    private static final int MAXIMUM_CANDIDATE_COUNT = 8;
+
+    public static void main(String[] args) {
+        File inputFile = new File(args.length > 0 ? args[0] : "data/election/import/synthetic-10000units.txt");
+        int stepCount = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+        List<FederalState> federalStateList = new ElectionSolutionFileIO().read(inputFile).getFederalStateList();
+        // Warm up the JIT compiler with the highest candidate count
+        benchmark(federalStateList, MAXIMUM_CANDIDATE_COUNT, stepCount);
+        System.out.println("Candidates  Score calculations per second");
+        for (int candidateCount = MINIMUM_CANDIDATE_COUNT; candidateCount <= MAXIMUM_CANDIDATE_COUNT;
+                candidateCount++) {
+            long speed = benchmark(federalStateList, candidateCount, stepCount);
+            System.out.printf("%10d  %,28d\n", candidateCount, speed);
+        }
+    }
+
+    /**
+     * @return the score calculation count per second
+     */
+    private static long benchmark(List<FederalState> originalFederalStateList, int candidateCount, int stepCount) {
+        Random random = new Random(37);
+        String[] candidates = Election.createCandidates(candidateCount);
+        List<FederalState> federalStateList = new ArrayList<>(originalFederalStateList.size());
+        for (FederalState originalFederalState : originalFederalStateList) {
+            FederalState federalState = new FederalState(originalFederalState.getName(),
+                    originalFederalState.getPopulation(), originalFederalState.getElectoralVotes());
+            federalState.setWinningCandidate(candidates[random.nextInt(candidateCount)]);
+            federalStateList.add(federalState);
+        }
+        Election election = new Election(federalStateList, Election.calculateMajority(federalStateList), candidates);
+        ElectionIncrementalScoreCalculator scoreCalculator = new ElectionIncrementalScoreCalculator();
+        scoreCalculator.resetWorkingSolution(election);
+        int size = federalStateList.size();
+        // Use the scores, so the JIT can't eliminate the score calculation
+        long softScoreSum = 0L;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < stepCount; i++) {
+            FederalState federalState = federalStateList.get(random.nextInt(size));
+            scoreCalculator.beforeVariableChanged(federalState, "winningCandidate");
+            federalState.setWinningCandidate(candidates[random.nextInt(candidateCount)]);
+            scoreCalculator.afterVariableChanged(federalState, "winningCandidate");
+            softScoreSum += ((HardSoftScore) scoreCalculator.calculateScore(0)).getSoftScore();
+        }
+        long nanos = System.nanoTime() - startNanos;
+        if (softScoreSum > 0L) {
+            throw new IllegalStateException("The softScoreSum (" + softScoreSum + ") can't be positive.");
+        }
+        return stepCount * 1_000_000_000L / Math.max(nanos, 1L);
+    }
+
+}
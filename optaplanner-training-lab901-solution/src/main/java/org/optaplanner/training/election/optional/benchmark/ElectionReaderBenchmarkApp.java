@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.optaplanner.persistence.common.api.domain.solution.SolutionFileIO;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.optional.persistence.ElectionMappedSolutionFileIO;
+import org.optaplanner.training.election.persistence.ElectionSolutionFileIO;
+
+/**
+ * Compares the read time and the allocated bytes of {@link ElectionSolutionFileIO}
+ * and {@link ElectionMappedSolutionFileIO} on a generated county level file,
+ * for example {@code ElectionReaderBenchmarkApp 200000}.
+ * <p>
+ * The generated file is deleted afterwards. Counties don't have electoral votes of their own,
+ * so the generated lines just have a small number to parse.
+ */
+public class ElectionReaderBenchmarkApp {
+
+    private static final int WARM_UP_COUNT = 5;
+    private static final int MEASURE_COUNT = 10;
+
+    public static void main(String[] args) {
+        int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        File inputFile = writeCountyFile(lineCount);
+        try {
+            System.out.println("Reading " + lineCount + " lines (" + (inputFile.length() / 1024L) + " KB).");
+            benchmark("Files.lines and String.split", new ElectionSolutionFileIO(), inputFile);
+            benchmark("Memory mapped byte tokenizer", new ElectionMappedSolutionFileIO(), inputFile);
+        } finally {
+            inputFile.delete();
+        }
+    }
+
+    private static File writeCountyFile(int lineCount) {
+        Random random = new Random(37);
+        try {
+            File inputFile = File.createTempFile("election-counties-", ".txt");
+            try (BufferedWriter writer = Files.newBufferedWriter(inputFile.toPath(), StandardCharsets.UTF_8)) {
+                writer.write("# County,population,electoralVotes\n");
+                for (int i = 0; i < lineCount; i++) {
+                    // Log-normal, like the populations of real counties
+                    int population = (int) Math.round(Math.exp(10.0 + 1.5 * random.nextGaussian()));
+                    writer.write("County " + i + "," + population + "," + (1 + population / 100000) + "\n");
+                }
+            }
+            return inputFile;
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing the generated county file failed.", e);
+        }
+    }
+
+    private static void benchmark(String readerName, SolutionFileIO<Election> solutionFileIO, File inputFile) {
+        for (int i = 0; i < WARM_UP_COUNT; i++) {
+            solutionFileIO.read(inputFile);
+        }
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long allocatedBytesBefore = measureAllocatedBytes(threadMXBean);
+        long startNanos = System.nanoTime();
+        long populationTotal = 0L;
+        int federalStateListSize = 0;
+        for (int i = 0; i < MEASURE_COUNT; i++) {
+            Election election = solutionFileIO.read(inputFile);
+            federalStateListSize = election.getFederalStateList().size();
+            // Use the result, so the JIT can't eliminate the read
+            populationTotal = election.getFederalStateList().stream().mapToLong(FederalState::getPopulation).sum();
+        }
+        long nanosPerRead = (System.nanoTime() - startNanos) / MEASURE_COUNT;
+        long allocatedBytesAfter = measureAllocatedBytes(threadMXBean);
+        String allocatedBytesPerLine = allocatedBytesBefore < 0L ? "?"
+                : Long.toString((allocatedBytesAfter - allocatedBytesBefore) / MEASURE_COUNT / federalStateListSize);
+        System.out.printf("%-30s %6.1f ms per read, %,11d lines per second, %s bytes per line (population %,d).\n",
+                readerName,
+                nanosPerRead / 1_000_000.0,
+                federalStateListSize * 1_000_000_000L / Math.max(nanosPerRead, 1L),
+                allocatedBytesPerLine,
+                populationTotal);
+    }
+
+    /**
+     * @param threadMXBean never null
+     * @return -1 if the JVM doesn't measure allocations per thread
+     */
+    private static long measureAllocatedBytes(ThreadMXBean threadMXBean) {
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+    }
+
+}
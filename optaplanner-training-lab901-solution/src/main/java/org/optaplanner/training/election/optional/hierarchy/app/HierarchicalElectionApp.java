@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.hierarchy.app;
+
+import java.io.File;
+import java.util.List;
+
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.training.election.optional.hierarchy.domain.County;
+import org.optaplanner.training.election.optional.hierarchy.domain.HierarchicalElection;
+import org.optaplanner.training.election.optional.hierarchy.domain.Region;
+import org.optaplanner.training.election.optional.hierarchy.persistence.HierarchicalElectionGenerator;
+
+/**
+ * Optional: solves president2016.txt with the federal states split into counties.
+ * Run it with {@code [countyListSize]}.
+ */
+public class HierarchicalElectionApp {
+
+    public static void main(String[] args) {
+        int countyListSize = args.length > 0 ? Integer.parseInt(args[0])
+                : HierarchicalElectionGenerator.DEFAULT_COUNTY_LIST_SIZE;
+        HierarchicalElection election = new HierarchicalElectionGenerator().generateElection(
+                new File("data/election/import/president2016.txt"), countyListSize);
+        SolverFactory<HierarchicalElection> solverFactory = SolverFactory.createFromXmlResource(
+                "org/optaplanner/training/election/optional/hierarchy/solver/hierarchicalElectionSolverConfig.xml");
+        election = solverFactory.buildSolver().solve(election);
+        printElection(election);
+    }
+
+    private static void printElection(HierarchicalElection election) {
+        System.out.println("Hierarchical election");
+        System.out.println("=====================");
+
+        List<Region> regionList = election.getRegionList();
+        int[] wonChildCounts = new int[regionList.size()];
+        long minimumPopulation = 0L;
+        long populationTotal = 0L;
+        for (County county : election.getCountyList()) {
+            if (county.isGamerWinning()) {
+                wonChildCounts[county.getParent().getIndex()]++;
+                minimumPopulation += county.getMinimumMajorityPopulation();
+            }
+            populationTotal += county.getPopulation();
+        }
+        // A district always comes after its state, so count the won districts first
+        for (int i = regionList.size() - 1; i >= 0; i--) {
+            Region region = regionList.get(i);
+            if (region.getParent() != null && region.isWonBy(wonChildCounts[i])) {
+                wonChildCounts[region.getParent().getIndex()]++;
+            }
+        }
+        int electoralVotes = 0;
+        for (Region region : regionList) {
+            if (region.isWonBy(wonChildCounts[region.getIndex()])) {
+                electoralVotes += region.getElectoralVotes();
+                System.out.printf("%-30s %3d EC: %4d of %4d children.\n",
+                        region.getName(),
+                        region.getElectoralVotes(),
+                        wonChildCounts[region.getIndex()],
+                        region.getChildCount());
+            }
+        }
+        System.out.println("");
+        System.out.printf("%-30s %3d EC: %,11d of %,11d voters (%.2f%%).\n",
+                "TOTAL",
+                electoralVotes,
+                minimumPopulation,
+                populationTotal,
+                minimumPopulation * 100.0 / populationTotal);
+        System.out.println("Score: " + election.getScore());
+    }
+
+}
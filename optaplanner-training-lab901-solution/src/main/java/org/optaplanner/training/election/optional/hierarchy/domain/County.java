@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.hierarchy.domain;
+
+import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.variable.PlanningVariable;
+
+@PlanningEntity
+public class County {
+
+    private String name;
+    private int population;
+    private Region parent;
+
+    // True if the gamer candidate wins this county, null if uninitialized
+    @PlanningVariable(valueRangeProviderRefs = {"gamerWinsRange"})
+    private Boolean gamerWins;
+
+    private County() {
+    }
+
+    /**
+     * @param name never null
+     * @param population {@code >= 0}
+     * @param parent never null, the state or district that this county is a child of
+     */
+    public County(String name, int population, Region parent) {
+        this.name = name;
+        this.population = population;
+        this.parent = parent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPopulation() {
+        return population;
+    }
+
+    public Region getParent() {
+        return parent;
+    }
+
+    public Boolean getGamerWins() {
+        return gamerWins;
+    }
+
+    public void setGamerWins(Boolean gamerWins) {
+        this.gamerWins = gamerWins;
+    }
+
+    /**
+     * @return false if uninitialized
+     */
+    public boolean isGamerWinning() {
+        return gamerWins != null && gamerWins;
+    }
+
+    public int getMinimumMajorityPopulation() {
+        return (population / 2) + 1;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
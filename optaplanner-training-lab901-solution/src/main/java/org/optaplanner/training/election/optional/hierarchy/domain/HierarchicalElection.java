@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.hierarchy.domain;
+
+import java.util.List;
+
+import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
+import org.optaplanner.core.api.domain.solution.PlanningScore;
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.domain.solution.drools.ProblemFactCollectionProperty;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeFactory;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.training.election.domain.Election;
+
+/**
+ * Variant of {@link Election} that rolls counties up into districts and states.
+ * The gamer candidate decides which counties to win with a majority of their population.
+ * A {@link Region} is won if a majority of its children is won
+ * and the gamer candidate needs {@link #getElectoralVotesToWin()} of the won regions' electoral votes.
+ */
+@PlanningSolution
+public class HierarchicalElection {
+
+    @ProblemFactCollectionProperty
+    private List<Region> regionList;
+    @PlanningEntityCollectionProperty
+    private List<County> countyList;
+    private int electoralVotesToWin;
+
+    @PlanningScore
+    private HardSoftScore score;
+
+    private HierarchicalElection() {
+    }
+
+    /**
+     * @param regionList never null, every {@link Region#getIndex()} is its index in this list
+     * @param countyList never null
+     * @param electoralVotesToWin {@code >= 1}
+     */
+    public HierarchicalElection(List<Region> regionList, List<County> countyList, int electoralVotesToWin) {
+        this.regionList = regionList;
+        this.countyList = countyList;
+        this.electoralVotesToWin = electoralVotesToWin;
+    }
+
+    @ValueRangeProvider(id = "gamerWinsRange")
+    public CountableValueRange<Boolean> getGamerWinsRange() {
+        return ValueRangeFactory.createBooleanValueRange();
+    }
+
+    public List<Region> getRegionList() {
+        return regionList;
+    }
+
+    public List<County> getCountyList() {
+        return countyList;
+    }
+
+    public int getElectoralVotesToWin() {
+        return electoralVotesToWin;
+    }
+
+    public HardSoftScore getScore() {
+        return score;
+    }
+
+    public void setScore(HardSoftScore score) {
+        this.score = score;
+    }
+
+}
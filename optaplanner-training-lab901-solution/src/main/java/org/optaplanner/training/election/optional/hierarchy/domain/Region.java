@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.hierarchy.domain;
+
+/**
+ * A state, or a district of a state that splits its electoral votes, such as Maine and Nebraska.
+ * The gamer candidate wins it if it wins a strict majority of its children,
+ * which are {@link County counties} or districts.
+ */
+public class Region {
+
+    private int index;
+    private String name;
+    private Region parent;
+    private int electoralVotes;
+    private int childCount;
+
+    private Region() {
+    }
+
+    /**
+     * @param index {@code >= 0}, the index of this region in {@link HierarchicalElection#getRegionList()}
+     * @param name never null
+     * @param parent null if it's a state
+     * @param electoralVotes {@code >= 0}, for a state that splits its electoral votes only the statewide ones
+     */
+    public Region(int index, String name, Region parent, int electoralVotes) {
+        this.index = index;
+        this.name = name;
+        this.parent = parent;
+        this.electoralVotes = electoralVotes;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return null if it's a state
+     */
+    public Region getParent() {
+        return parent;
+    }
+
+    public int getElectoralVotes() {
+        return electoralVotes;
+    }
+
+    public int getChildCount() {
+        return childCount;
+    }
+
+    public void incrementChildCount() {
+        childCount++;
+    }
+
+    /**
+     * @param wonChildCount {@code 0 <= wonChildCount <= childCount}
+     * @return true if that many won children win this region
+     */
+    public boolean isWonBy(int wonChildCount) {
+        return wonChildCount * 2 > childCount;
+    }
+
+    /**
+     * @return 0 for a state
+     */
+    public int getDepth() {
+        int depth = 0;
+        for (Region ancestor = parent; ancestor != null; ancestor = ancestor.getParent()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.hierarchy.persistence;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.optional.hierarchy.domain.County;
+import org.optaplanner.training.election.optional.hierarchy.domain.HierarchicalElection;
+import org.optaplanner.training.election.optional.hierarchy.domain.Region;
+import org.optaplanner.training.election.persistence.ElectionSolutionFileIO;
+
+/**
+ * Spreads the population of every federal state of a flat {@link Election} over synthetic counties,
+ * about 3000 in total like the real ones, in proportion to the state's population.
+ * <p>
+ * Maine and Nebraska split their electoral votes: every congressional district gets 1 electoral vote,
+ * won by a majority of its counties, and the state keeps the rest, won by a majority of its districts.
+ */
+public class HierarchicalElectionGenerator {
+
+    public static final int DEFAULT_COUNTY_LIST_SIZE = 3000;
+
+    private static final String[] DISTRICT_SPLITTING_STATE_NAMES = {"Maine", "Nebraska"};
+    private static final int[] DISTRICT_COUNTS = {2, 3};
+
+    protected Random random = new Random(37);
+
+    public HierarchicalElection generateElection(File inputFile, int countyListSize) {
+        Election election = new ElectionSolutionFileIO().read(inputFile);
+        return generateElection(election, countyListSize);
+    }
+
+    /**
+     * @param election never null
+     * @param countyListSize {@code >= 1}, approximately, every federal state gets at least 1 county per district
+     * @return never null
+     */
+    public HierarchicalElection generateElection(Election election, int countyListSize) {
+        List<FederalState> federalStateList = election.getFederalStateList();
+        long populationTotal = federalStateList.stream().mapToLong(FederalState::getPopulation).sum();
+        List<Region> regionList = new ArrayList<>(federalStateList.size() + 5);
+        List<County> countyList = new ArrayList<>(countyListSize);
+        for (FederalState federalState : federalStateList) {
+            int districtCount = findDistrictCount(federalState.getName());
+            Region state = new Region(regionList.size(), federalState.getName(), null,
+                    federalState.getElectoralVotes() - districtCount);
+            regionList.add(state);
+            List<Region> parentList = new ArrayList<>(Math.max(districtCount, 1));
+            if (districtCount == 0) {
+                parentList.add(state);
+            } else {
+                for (int i = 0; i < districtCount; i++) {
+                    Region district = new Region(regionList.size(), federalState.getName() + " district " + (i + 1),
+                            state, 1);
+                    state.incrementChildCount();
+                    regionList.add(district);
+                    parentList.add(district);
+                }
+            }
+            int stateCountyListSize = Math.max(parentList.size(),
+                    (int) Math.round((double) countyListSize * federalState.getPopulation() / populationTotal));
+            int[] populations = splitPopulation(federalState.getPopulation(), stateCountyListSize);
+            for (int i = 0; i < stateCountyListSize; i++) {
+                Region parent = parentList.get(i % parentList.size());
+                countyList.add(new County(federalState.getName() + " county " + (i + 1), populations[i], parent));
+                parent.incrementChildCount();
+            }
+        }
+        return new HierarchicalElection(regionList, countyList, election.getElectoralVotesToWin());
+    }
+
+    private static int findDistrictCount(String federalStateName) {
+        for (int i = 0; i < DISTRICT_SPLITTING_STATE_NAMES.length; i++) {
+            if (DISTRICT_SPLITTING_STATE_NAMES[i].equals(federalStateName)) {
+                return DISTRICT_COUNTS[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Log-normal weights, like the populations of real counties: a few big cities and a long tail of rural ones.
+     * @param population {@code >= 0}
+     * @param size {@code >= 1}
+     * @return never null, sums up to the population
+     */
+    private int[] splitPopulation(int population, int size) {
+        double[] weights = new double[size];
+        double weightTotal = 0.0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = Math.exp(1.5 * random.nextGaussian());
+            weightTotal += weights[i];
+        }
+        int[] populations = new int[size];
+        int remainingPopulation = population;
+        for (int i = 0; i < size - 1; i++) {
+            populations[i] = (int) (population * weights[i] / weightTotal);
+            remainingPopulation -= populations[i];
+        }
+        populations[size - 1] = remainingPopulation;
+        return populations;
+    }
+
+}
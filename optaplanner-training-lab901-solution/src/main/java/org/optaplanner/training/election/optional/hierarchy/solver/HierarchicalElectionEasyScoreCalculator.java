@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.hierarchy.solver;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.impl.score.director.easy.EasyScoreCalculator;
+import org.optaplanner.training.election.optional.hierarchy.domain.County;
+import org.optaplanner.training.election.optional.hierarchy.domain.HierarchicalElection;
+import org.optaplanner.training.election.optional.hierarchy.domain.Region;
+
+public class HierarchicalElectionEasyScoreCalculator implements EasyScoreCalculator<HierarchicalElection> {
+
+    @Override
+    public Score calculateScore(HierarchicalElection election, int initScore) {
+        int[] wonChildCounts = new int[election.getRegionList().size()];
+        int gamerMinimumPopulation = 0;
+        for (County county : election.getCountyList()) {
+            if (county.isGamerWinning()) {
+                wonChildCounts[county.getParent().getIndex()]++;
+                gamerMinimumPopulation += county.getMinimumMajorityPopulation();
+            }
+        }
+        // Districts before their states
+        List<Region> deepestFirstRegionList = election.getRegionList().stream()
+                .sorted(Comparator.comparing(Region::getDepth).reversed())
+                .collect(Collectors.toList());
+        int gamerCandidateWins = 0;
+        for (Region region : deepestFirstRegionList) {
+            if (region.isWonBy(wonChildCounts[region.getIndex()])) {
+                gamerCandidateWins += region.getElectoralVotes();
+                if (region.getParent() != null) {
+                    wonChildCounts[region.getParent().getIndex()]++;
+                }
+            }
+        }
+        int electoralVotesToWin = election.getElectoralVotesToWin();
+        int hardScore = (gamerCandidateWins >= electoralVotesToWin) ? 0 : (gamerCandidateWins - electoralVotesToWin);
+        return HardSoftScore.valueOf(initScore, hardScore, -gamerMinimumPopulation);
+    }
+
+}
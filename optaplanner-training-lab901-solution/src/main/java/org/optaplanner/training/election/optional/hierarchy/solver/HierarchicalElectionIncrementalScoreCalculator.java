@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.hierarchy.solver;
+
+import java.util.List;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.impl.score.director.incremental.IncrementalScoreCalculator;
+import org.optaplanner.training.election.optional.hierarchy.domain.County;
+import org.optaplanner.training.election.optional.hierarchy.domain.HierarchicalElection;
+import org.optaplanner.training.election.optional.hierarchy.domain.Region;
+
+/**
+ * Keeps the won child count of every {@link Region}.
+ * A county flip only walks up the tree while the winner of a region changes,
+ * so most moves touch 1 region and none touch more than the depth of the tree,
+ * regardless of the number of counties.
+ */
+public class HierarchicalElectionIncrementalScoreCalculator
+        implements IncrementalScoreCalculator<HierarchicalElection> {
+
+    private int electoralVotesToWin;
+
+    private int[] wonChildCounts;
+    private int gamerCandidateWins;
+    private int gamerMinimumPopulation;
+
+    @Override
+    public void resetWorkingSolution(HierarchicalElection election) {
+        electoralVotesToWin = election.getElectoralVotesToWin();
+        List<Region> regionList = election.getRegionList();
+        wonChildCounts = new int[regionList.size()];
+        gamerCandidateWins = 0;
+        gamerMinimumPopulation = 0;
+        for (County county : election.getCountyList()) {
+            insert(county);
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(Object entity) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(Object entity) {
+        insert((County) entity);
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+        retract((County) entity);
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+        insert((County) entity);
+    }
+
+    @Override
+    public void beforeEntityRemoved(Object entity) {
+        retract((County) entity);
+    }
+
+    @Override
+    public void afterEntityRemoved(Object entity) {
+        // Do nothing
+    }
+
+    private void insert(County county) {
+        if (county.isGamerWinning()) {
+            gamerMinimumPopulation += county.getMinimumMajorityPopulation();
+            // Stop at the first region that doesn't change winner
+            for (Region region = county.getParent(); region != null; region = region.getParent()) {
+                int index = region.getIndex();
+                boolean won = region.isWonBy(wonChildCounts[index]);
+                wonChildCounts[index]++;
+                if (won || !region.isWonBy(wonChildCounts[index])) {
+                    break;
+                }
+                gamerCandidateWins += region.getElectoralVotes();
+            }
+        }
+    }
+
+    private void retract(County county) {
+        if (county.isGamerWinning()) {
+            gamerMinimumPopulation -= county.getMinimumMajorityPopulation();
+            for (Region region = county.getParent(); region != null; region = region.getParent()) {
+                int index = region.getIndex();
+                boolean won = region.isWonBy(wonChildCounts[index]);
+                wonChildCounts[index]--;
+                if (!won || region.isWonBy(wonChildCounts[index])) {
+                    break;
+                }
+                gamerCandidateWins -= region.getElectoralVotes();
+            }
+        }
+    }
+
+    @Override
+    public Score calculateScore(int initScore) {
+        int hardScore = (gamerCandidateWins >= electoralVotesToWin) ? 0 : (gamerCandidateWins - electoralVotesToWin);
+        return HardSoftScore.valueOf(initScore, hardScore, -gamerMinimumPopulation);
+    }
+
+}
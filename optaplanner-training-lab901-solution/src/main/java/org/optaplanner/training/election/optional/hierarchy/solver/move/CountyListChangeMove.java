@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.hierarchy.solver.move;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+import org.optaplanner.core.impl.heuristic.move.AbstractMove;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.training.election.optional.hierarchy.domain.County;
+
+/**
+ * Changes whether the gamer candidate wins several counties at once,
+ * for example the cheapest majority of the counties of a region.
+ */
+public class CountyListChangeMove extends AbstractMove {
+
+    private final County[] counties;
+    private final Boolean[] toGamerWins;
+
+    /**
+     * @param counties never null
+     * @param toGamerWins never null, same length as counties,
+     * an element is null for a county that the undo move makes uninitialized again
+     */
+    public CountyListChangeMove(County[] counties, Boolean[] toGamerWins) {
+        if (counties.length != toGamerWins.length) {
+            throw new IllegalArgumentException("The counties length (" + counties.length
+                    + ") differs from the toGamerWins length (" + toGamerWins.length + ").");
+        }
+        this.counties = counties;
+        this.toGamerWins = toGamerWins;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector scoreDirector) {
+        for (int i = 0; i < counties.length; i++) {
+            if (!Objects.equals(toGamerWins[i], counties[i].getGamerWins())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public CountyListChangeMove createUndoMove(ScoreDirector scoreDirector) {
+        Boolean[] fromGamerWins = new Boolean[counties.length];
+        for (int i = 0; i < counties.length; i++) {
+            fromGamerWins[i] = counties[i].getGamerWins();
+        }
+        return new CountyListChangeMove(counties, fromGamerWins);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector scoreDirector) {
+        for (int i = 0; i < counties.length; i++) {
+            County county = counties[i];
+            // Only notify the counties that change, so the score calculator does less work
+            if (!Objects.equals(toGamerWins[i], county.getGamerWins())) {
+                scoreDirector.beforeVariableChanged(county, "gamerWins");
+                county.setGamerWins(toGamerWins[i]);
+                scoreDirector.afterVariableChanged(county, "gamerWins");
+            }
+        }
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningEntities() {
+        return Arrays.asList(counties);
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningValues() {
+        return Arrays.asList(toGamerWins);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o instanceof CountyListChangeMove) {
+            CountyListChangeMove other = (CountyListChangeMove) o;
+            return Arrays.equals(counties, other.counties)
+                    && Arrays.equals(toGamerWins, other.toGamerWins);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(counties) + Arrays.hashCode(toGamerWins);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(counties) + " -> " + Arrays.toString(toGamerWins);
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.hierarchy.solver.move.factory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveListFactory;
+import org.optaplanner.training.election.optional.hierarchy.domain.County;
+import org.optaplanner.training.election.optional.hierarchy.domain.HierarchicalElection;
+import org.optaplanner.training.election.optional.hierarchy.domain.Region;
+import org.optaplanner.training.election.optional.hierarchy.solver.move.CountyListChangeMove;
+
+/**
+ * Flipping 1 county rarely changes the winner of its region, so change and swap moves alone
+ * don't find a way out of the initial solution.
+ * For every region with counties, this creates a move that wins it with its least populated majority of counties
+ * and a move that loses all of its counties.
+ * <p>
+ * The moves only depend on the problem facts, so configure {@code <cacheType>PHASE</cacheType>}.
+ */
+public class RegionChangeMoveListFactory implements MoveListFactory<HierarchicalElection> {
+
+    @Override
+    public List<CountyListChangeMove> createMoveList(HierarchicalElection election) {
+        Map<Region, List<County>> regionToCountyListMap = election.getCountyList().stream()
+                .collect(Collectors.groupingBy(County::getParent));
+        List<CountyListChangeMove> moveList = new ArrayList<>(regionToCountyListMap.size() * 2);
+        for (Region region : election.getRegionList()) {
+            List<County> countyList = regionToCountyListMap.get(region);
+            if (countyList == null) {
+                continue;
+            }
+            County[] counties = countyList.stream()
+                    .sorted(Comparator.comparingInt(County::getPopulation))
+                    .toArray(County[]::new);
+            Boolean[] winGamerWins = new Boolean[counties.length];
+            int majority = (counties.length / 2) + 1;
+            for (int i = 0; i < counties.length; i++) {
+                winGamerWins[i] = i < majority;
+            }
+            moveList.add(new CountyListChangeMove(counties, winGamerWins));
+            Boolean[] loseGamerWins = new Boolean[counties.length];
+            Arrays.fill(loseGamerWins, Boolean.FALSE);
+            moveList.add(new CountyListChangeMove(counties, loseGamerWins));
+        }
+        return moveList;
+    }
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.optaplanner.persistence.common.api.domain.solution.SolutionFileIO;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.persistence.ElectionSolutionFileIO;
+
+/**
+ * Same file format as {@link ElectionSolutionFileIO}, but reads county or precinct sized files
+ * with hundreds of thousands of lines faster.
+ * <p>
+ * It memory maps the input file and tokenizes its bytes in a single pass,
+ * so the only objects it creates per line are the {@link FederalState} and its name.
+ * There are no intermediate line strings, token arrays or boxed numbers.
+ * The winning candidate token is matched against the {@link Election#getCandidates()} instead of copied,
+ * so the {@code # candidates=} header line must precede the federal state lines, as it's written.
+ * <p>
+ * Writing is delegated to {@link ElectionSolutionFileIO}.
+ */
+public class ElectionMappedSolutionFileIO implements SolutionFileIO<Election> {
+
+    private static final byte[] ELECTORAL_VOTES_TO_WIN_PREFIX_BYTES
+            = ElectionSolutionFileIO.ELECTORAL_VOTES_TO_WIN_PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CANDIDATES_PREFIX_BYTES
+            = ElectionSolutionFileIO.CANDIDATES_PREFIX.getBytes(StandardCharsets.UTF_8);
+
+    private final ElectionSolutionFileIO electionSolutionFileIO = new ElectionSolutionFileIO();
+
+    @Override
+    public String getInputFileExtension() {
+        return electionSolutionFileIO.getInputFileExtension();
+    }
+
+    @Override
+    public String getOutputFileExtension() {
+        return electionSolutionFileIO.getOutputFileExtension();
+    }
+
+    @Override
+    public Election read(File inputFile) {
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("The inputFile size (" + size
+                        + ") is too big to map into a single buffer.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+            return parseElection(buffer, (int) size);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Reading inputFile (" + inputFile + ") failed.", e);
+        }
+    }
+
+    private Election parseElection(MappedByteBuffer buffer, int size) {
+        List<FederalState> federalStateList = new ArrayList<>();
+        int electoralVotesToWin = -1;
+        String[] candidates = Election.createCandidates(2);
+        byte[][] candidateBytes = encodeCandidates(candidates);
+        // Reused for the name of every line, so only the String itself is allocated
+        byte[] nameBytes = new byte[64];
+        int lineNumber = 0;
+        int position = 0;
+        while (position < size) {
+            lineNumber++;
+            int lineEnd = position;
+            while (lineEnd < size && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int nextPosition = lineEnd + 1;
+            if (lineEnd > position && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd == position || buffer.get(position) == '#') {
+                int prefixEnd = position + ELECTORAL_VOTES_TO_WIN_PREFIX_BYTES.length;
+                if (prefixEnd <= lineEnd && matches(buffer, position, prefixEnd, ELECTORAL_VOTES_TO_WIN_PREFIX_BYTES)) {
+                    electoralVotesToWin = parseInt(buffer, prefixEnd, lineEnd, lineNumber);
+                }
+                prefixEnd = position + CANDIDATES_PREFIX_BYTES.length;
+                if (prefixEnd <= lineEnd && matches(buffer, position, prefixEnd, CANDIDATES_PREFIX_BYTES)) {
+                    candidates = decode(buffer, prefixEnd, lineEnd).split(",");
+                    candidateBytes = encodeCandidates(candidates);
+                }
+                position = nextPosition;
+                continue;
+            }
+
+            int nameEnd = indexOfComma(buffer, position, lineEnd, lineNumber);
+            int nameLength = nameEnd - position;
+            if (nameLength > nameBytes.length) {
+                nameBytes = new byte[Math.max(nameLength, nameBytes.length * 2)];
+            }
+            for (int i = 0; i < nameLength; i++) {
+                nameBytes[i] = buffer.get(position + i);
+            }
+            String name = new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8);
+
+            int populationStart = nameEnd + 1;
+            int populationEnd = indexOfComma(buffer, populationStart, lineEnd, lineNumber);
+            int population = parseInt(buffer, populationStart, populationEnd, lineNumber);
+
+            int electoralVotesStart = populationEnd + 1;
+            int electoralVotesEnd = electoralVotesStart;
+            while (electoralVotesEnd < lineEnd && buffer.get(electoralVotesEnd) != ',') {
+                electoralVotesEnd++;
+            }
+            int electoralVotes = parseInt(buffer, electoralVotesStart, electoralVotesEnd, lineNumber);
+
+            FederalState federalState = new FederalState(name, population, electoralVotes);
+            if (electoralVotesEnd < lineEnd) {
+                federalState.setWinningCandidate(
+                        parseWinningCandidate(buffer, electoralVotesEnd + 1, lineEnd, lineNumber,
+                                candidates, candidateBytes));
+            }
+            federalStateList.add(federalState);
+            position = nextPosition;
+        }
+        return new Election(federalStateList,
+                electoralVotesToWin < 0 ? Election.calculateMajority(federalStateList) : electoralVotesToWin,
+                candidates);
+    }
+
+    private static int indexOfComma(MappedByteBuffer buffer, int start, int lineEnd, int lineNumber) {
+        for (int i = start; i < lineEnd; i++) {
+            if (buffer.get(i) == ',') {
+                return i;
+            }
+        }
+        throw new IllegalStateException("The line (" + lineNumber + ") does not have 3 or 4 tokens.");
+    }
+
+    private static int parseInt(MappedByteBuffer buffer, int start, int end, int lineNumber) {
+        if (start == end) {
+            throw new IllegalStateException("The line (" + lineNumber + ") has an empty number token.");
+        }
+        long value = 0L;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalStateException("The line (" + lineNumber + ") has a number token with a non digit ("
+                        + (char) buffer.get(i) + ").");
+            }
+            value = value * 10L + digit;
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalStateException("The line (" + lineNumber + ") has a number token that overflows.");
+            }
+        }
+        return (int) value;
+    }
+
+    private static String parseWinningCandidate(MappedByteBuffer buffer, int start, int end, int lineNumber,
+            String[] candidates, byte[][] candidateBytes) {
+        for (int i = 0; i < candidates.length; i++) {
+            if (matches(buffer, start, end, candidateBytes[i])) {
+                return candidates[i];
+            }
+        }
+        throw new IllegalStateException("The line (" + lineNumber + ") has a winningCandidate ("
+                + decode(buffer, start, end) + ") that is not one of the candidates ("
+                + Arrays.toString(candidates) + ").");
+    }
+
+    private static byte[][] encodeCandidates(String[] candidates) {
+        byte[][] candidateBytes = new byte[candidates.length][];
+        for (int i = 0; i < candidates.length; i++) {
+            candidateBytes[i] = candidates[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return candidateBytes;
+    }
+
+    private static String decode(MappedByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean matches(MappedByteBuffer buffer, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void write(Election election, File outputFile) {
+        electionSolutionFileIO.write(election, outputFile);
+    }
+
+}
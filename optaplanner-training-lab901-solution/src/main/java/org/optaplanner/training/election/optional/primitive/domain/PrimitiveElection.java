@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.primitive.domain;
+
+import java.util.List;
+
+import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
+import org.optaplanner.core.api.domain.solution.PlanningScore;
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeFactory;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.training.election.domain.Election;
+
+/**
+ * Variant of {@link Election} with a boolean planning variable
+ * and the problem facts of the federal states in primitive arrays, indexed by {@link PrimitiveFederalState#getIndex()}.
+ * So score calculation only does primitive arithmetic, no {@code String.equals()} calls.
+ */
+@PlanningSolution
+public class PrimitiveElection {
+
+    private String[] names;
+    private int[] populations;
+    private int[] electoralVotes;
+    private int[] minimumMajorityPopulations;
+    private int electoralVotesToWin;
+
+    @PlanningEntityCollectionProperty
+    private List<PrimitiveFederalState> federalStateList;
+
+    @PlanningScore
+    private HardSoftScore score;
+
+    private PrimitiveElection() {
+    }
+
+    public PrimitiveElection(String[] names, int[] populations, int[] electoralVotes, int electoralVotesToWin,
+            List<PrimitiveFederalState> federalStateList) {
+        this.names = names;
+        this.populations = populations;
+        this.electoralVotes = electoralVotes;
+        minimumMajorityPopulations = new int[populations.length];
+        for (int i = 0; i < populations.length; i++) {
+            minimumMajorityPopulations[i] = (populations[i] / 2) + 1;
+        }
+        this.electoralVotesToWin = electoralVotesToWin;
+        this.federalStateList = federalStateList;
+    }
+
+    @ValueRangeProvider(id = "gamerWinsRange")
+    public CountableValueRange<Boolean> getGamerWinsRange() {
+        return ValueRangeFactory.createBooleanValueRange();
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public int[] getPopulations() {
+        return populations;
+    }
+
+    public int[] getElectoralVotes() {
+        return electoralVotes;
+    }
+
+    public int[] getMinimumMajorityPopulations() {
+        return minimumMajorityPopulations;
+    }
+
+    public int getElectoralVotesToWin() {
+        return electoralVotesToWin;
+    }
+
+    public List<PrimitiveFederalState> getFederalStateList() {
+        return federalStateList;
+    }
+
+    public HardSoftScore getScore() {
+        return score;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.primitive.domain;
+
+import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.variable.PlanningVariable;
+
+@PlanningEntity(difficultyWeightFactoryClass = PrimitiveFederalStateDifficultyWeightFactory.class)
+public class PrimitiveFederalState {
+
+    private int index;
+
+    // True if the gamer candidate wins this state, null if uninitialized
+    @PlanningVariable(valueRangeProviderRefs = {"gamerWinsRange"})
+    private Boolean gamerWins;
+
+    private PrimitiveFederalState() {
+    }
+
+    /**
+     * @param index {@code >= 0}, the index of this state in the arrays of {@link PrimitiveElection}
+     */
+    public PrimitiveFederalState(int index) {
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Boolean getGamerWins() {
+        return gamerWins;
+    }
+
+    public void setGamerWins(Boolean gamerWins) {
+        this.gamerWins = gamerWins;
+    }
+
+    /**
+     * @return false if uninitialized
+     */
+    public boolean isGamerWinning() {
+        return gamerWins != null && gamerWins;
+    }
+
+    @Override
+    public String toString() {
+        return "State " + index;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.primitive.domain;
+
+import java.util.Comparator;
+
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionSorterWeightFactory;
+import org.optaplanner.training.election.optional.domain.FederalStateDifficultyComparator;
+
+/**
+ * Same order as {@link FederalStateDifficultyComparator}, but it needs the arrays of the {@link PrimitiveElection}.
+ */
+public class PrimitiveFederalStateDifficultyWeightFactory
+        implements SelectionSorterWeightFactory<PrimitiveElection, PrimitiveFederalState> {
+
+    @Override
+    public PrimitiveFederalStateDifficultyWeight createSorterWeight(PrimitiveElection election,
+            PrimitiveFederalState federalState) {
+        int index = federalState.getIndex();
+        return new PrimitiveFederalStateDifficultyWeight(index,
+                (double) election.getElectoralVotes()[index]
+                / (double) election.getMinimumMajorityPopulations()[index]);
+    }
+
+    public static class PrimitiveFederalStateDifficultyWeight
+            implements Comparable<PrimitiveFederalStateDifficultyWeight> {
+
+        // Assign states with a higher electoral vote per citizen ratio first.
+        // The sorter rejects equal weights, so states with the same ratio keep their order of the election,
+        // like the stable sort of FederalStateDifficultyComparator.
+        // They are higher (= more difficult) so they are assigned first.
+        private static final Comparator<PrimitiveFederalStateDifficultyWeight> COMPARATOR = Comparator
+                .comparingDouble((PrimitiveFederalStateDifficultyWeight weight) -> weight.electoralVotesPerCitizen)
+                .thenComparingInt(weight -> -weight.index);
+
+        private final int index;
+        private final double electoralVotesPerCitizen;
+
+        public PrimitiveFederalStateDifficultyWeight(int index, double electoralVotesPerCitizen) {
+            this.index = index;
+            this.electoralVotesPerCitizen = electoralVotesPerCitizen;
+        }
+
+        @Override
+        public int compareTo(PrimitiveFederalStateDifficultyWeight other) {
+            return COMPARATOR.compare(this, other);
+        }
+
+    }
+
+}
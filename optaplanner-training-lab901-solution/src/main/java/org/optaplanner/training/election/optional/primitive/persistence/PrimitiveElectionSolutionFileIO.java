@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.primitive.persistence;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.optaplanner.persistence.common.api.domain.solution.SolutionFileIO;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.optional.primitive.domain.PrimitiveElection;
+import org.optaplanner.training.election.optional.primitive.domain.PrimitiveFederalState;
+import org.optaplanner.training.election.persistence.ElectionSolutionFileIO;
+
+/**
+ * Same file format as {@link ElectionSolutionFileIO}.
+ */
+public class PrimitiveElectionSolutionFileIO implements SolutionFileIO<PrimitiveElection> {
+
+    private final ElectionSolutionFileIO electionSolutionFileIO = new ElectionSolutionFileIO();
+
+    @Override
+    public String getInputFileExtension() {
+        return electionSolutionFileIO.getInputFileExtension();
+    }
+
+    @Override
+    public String getOutputFileExtension() {
+        return electionSolutionFileIO.getOutputFileExtension();
+    }
+
+    @Override
+    public PrimitiveElection read(File inputFile) {
+        Election originalElection = electionSolutionFileIO.read(inputFile);
+        if (originalElection.getCandidates().length != 2) {
+            throw new IllegalStateException("The inputFile (" + inputFile + ")'s candidates ("
+                    + Arrays.toString(originalElection.getCandidates())
+                    + ") are a primary, which the boolean planning variable of this variant doesn't support.");
+        }
+        List<FederalState> federalStateList = originalElection.getFederalStateList();
+        int size = federalStateList.size();
+        String[] names = new String[size];
+        int[] populations = new int[size];
+        int[] electoralVotes = new int[size];
+        List<PrimitiveFederalState> primitiveFederalStateList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            FederalState federalState = federalStateList.get(i);
+            names[i] = federalState.getName();
+            populations[i] = federalState.getPopulation();
+            electoralVotes[i] = federalState.getElectoralVotes();
+            PrimitiveFederalState primitiveFederalState = new PrimitiveFederalState(i);
+            if (federalState.getWinningCandidate() != null) {
+                primitiveFederalState.setGamerWins(Election.GAMER_CANDIDATE.equals(federalState.getWinningCandidate()));
+            }
+            primitiveFederalStateList.add(primitiveFederalState);
+        }
+        return new PrimitiveElection(names, populations, electoralVotes,
+                originalElection.getElectoralVotesToWin(), primitiveFederalStateList);
+    }
+
+    @Override
+    public void write(PrimitiveElection election, File outputFile) {
+        List<PrimitiveFederalState> primitiveFederalStateList = election.getFederalStateList();
+        List<FederalState> federalStateList = new ArrayList<>(primitiveFederalStateList.size());
+        for (PrimitiveFederalState primitiveFederalState : primitiveFederalStateList) {
+            int index = primitiveFederalState.getIndex();
+            FederalState federalState = new FederalState(election.getNames()[index],
+                    election.getPopulations()[index], election.getElectoralVotes()[index]);
+            if (primitiveFederalState.getGamerWins() != null) {
+                federalState.setWinningCandidate(primitiveFederalState.isGamerWinning()
+                        ? Election.GAMER_CANDIDATE : Election.NORMAL_CANDIDATE);
+            }
+            federalStateList.add(federalState);
+        }
+        electionSolutionFileIO.write(new Election(federalStateList, election.getElectoralVotesToWin()), outputFile);
+    }
+
+}
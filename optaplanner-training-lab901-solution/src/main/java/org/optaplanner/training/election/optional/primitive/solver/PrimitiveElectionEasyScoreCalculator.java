@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.primitive.solver;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.impl.score.director.easy.EasyScoreCalculator;
+import org.optaplanner.training.election.optional.primitive.domain.PrimitiveElection;
+import org.optaplanner.training.election.optional.primitive.domain.PrimitiveFederalState;
+
+public class PrimitiveElectionEasyScoreCalculator implements EasyScoreCalculator<PrimitiveElection> {
+
+    @Override
+    public Score calculateScore(PrimitiveElection election, int initScore) {
+        int[] electoralVotes = election.getElectoralVotes();
+        int[] minimumMajorityPopulations = election.getMinimumMajorityPopulations();
+        int gamerCandidateWins = 0;
+        int gamerMinimumPopulation = 0;
+        for (PrimitiveFederalState federalState : election.getFederalStateList()) {
+            if (federalState.isGamerWinning()) {
+                int index = federalState.getIndex();
+                gamerCandidateWins += electoralVotes[index];
+                gamerMinimumPopulation += minimumMajorityPopulations[index];
+            }
+        }
+        int hardScore = Math.min(gamerCandidateWins - election.getElectoralVotesToWin(), 0);
+        return HardSoftScore.valueOf(initScore, hardScore, -gamerMinimumPopulation);
+    }
+
+}
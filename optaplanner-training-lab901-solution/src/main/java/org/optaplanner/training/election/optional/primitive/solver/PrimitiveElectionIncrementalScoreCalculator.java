@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.primitive.solver;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.impl.score.director.incremental.IncrementalScoreCalculator;
+import org.optaplanner.training.election.optional.primitive.domain.PrimitiveElection;
+import org.optaplanner.training.election.optional.primitive.domain.PrimitiveFederalState;
+
+public class PrimitiveElectionIncrementalScoreCalculator implements IncrementalScoreCalculator<PrimitiveElection> {
+
+    private int[] electoralVotes;
+    private int[] minimumMajorityPopulations;
+    private int electoralVotesToWin;
+
+    private int gamerCandidateWins;
+    private int gamerMinimumPopulation;
+
+    @Override
+    public void resetWorkingSolution(PrimitiveElection election) {
+        electoralVotes = election.getElectoralVotes();
+        minimumMajorityPopulations = election.getMinimumMajorityPopulations();
+        electoralVotesToWin = election.getElectoralVotesToWin();
+        gamerCandidateWins = 0;
+        gamerMinimumPopulation = 0;
+        for (PrimitiveFederalState federalState : election.getFederalStateList()) {
+            insert(federalState);
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(Object entity) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(Object entity) {
+        insert((PrimitiveFederalState) entity);
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+        retract((PrimitiveFederalState) entity);
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+        insert((PrimitiveFederalState) entity);
+    }
+
+    @Override
+    public void beforeEntityRemoved(Object entity) {
+        retract((PrimitiveFederalState) entity);
+    }
+
+    @Override
+    public void afterEntityRemoved(Object entity) {
+        // Do nothing
+    }
+
+    private void insert(PrimitiveFederalState federalState) {
+        if (federalState.isGamerWinning()) {
+            int index = federalState.getIndex();
+            gamerCandidateWins += electoralVotes[index];
+            gamerMinimumPopulation += minimumMajorityPopulations[index];
+        }
+    }
+
+    private void retract(PrimitiveFederalState federalState) {
+        if (federalState.isGamerWinning()) {
+            int index = federalState.getIndex();
+            gamerCandidateWins -= electoralVotes[index];
+            gamerMinimumPopulation -= minimumMajorityPopulations[index];
+        }
+    }
+
+    @Override
+    public Score calculateScore(int initScore) {
+        int hardScore = Math.min(gamerCandidateWins - electoralVotesToWin, 0);
+        return HardSoftScore.valueOf(initScore, hardScore, -gamerMinimumPopulation);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.solver;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.persistence.ElectionSolutionFileIO;
+
+/**
+ * Solves every scenario file in a directory (for example census years or population projections)
+ * concurrently, on a fixed thread pool.
+ * All solvers are built from the same {@link SolverFactory}, each one is used by 1 thread only.
+ */
+public class ElectionBatchSolver {
+
+    private final SolverFactory<Election> solverFactory;
+    private final int threadCount;
+    private final ElectionSolutionFileIO solutionFileIO = new ElectionSolutionFileIO();
+
+    /**
+     * @param solverFactory never null
+     * @param threadCount {@code >= 1}
+     */
+    public ElectionBatchSolver(SolverFactory<Election> solverFactory, int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The threadCount (" + threadCount + ") must be at least 1.");
+        }
+        this.solverFactory = solverFactory;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * @param inputDir never null, a directory with files in the {@link ElectionSolutionFileIO} format
+     * @return never null, the solved election per input file, sorted by file name
+     */
+    public Map<File, Election> solveAll(File inputDir) {
+        File[] inputFiles = inputDir.listFiles((dir, name) -> name.endsWith("."
+                + solutionFileIO.getInputFileExtension()));
+        if (inputFiles == null || inputFiles.length == 0) {
+            throw new IllegalArgumentException("The inputDir (" + inputDir + ") does not contain any ."
+                    + solutionFileIO.getInputFileExtension() + " files.");
+        }
+        Arrays.sort(inputFiles);
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threadCount, inputFiles.length));
+        try {
+            List<Future<Election>> futureList = new ArrayList<>(inputFiles.length);
+            for (File inputFile : inputFiles) {
+                futureList.add(executorService.submit(
+                        () -> solverFactory.buildSolver().solve(solutionFileIO.read(inputFile))));
+            }
+            Map<File, Election> electionMap = new LinkedHashMap<>(inputFiles.length);
+            for (int i = 0; i < inputFiles.length; i++) {
+                try {
+                    electionMap.put(inputFiles[i], futureList.get(i).get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while solving inputFile (" + inputFiles[i] + ").", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Solving inputFile (" + inputFiles[i] + ") failed.",
+                            e.getCause());
+                }
+            }
+            return electionMap;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.solver;
+
+import java.util.List;
+
+import org.optaplanner.core.impl.phase.custom.AbstractCustomPhaseCommand;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+
+/**
+ * Runs the {@link ElectionDynamicProgrammingSolver} as a custom phase,
+ * so the exact solution shows up in a benchmark report next to the metaheuristics.
+ */
+public class ElectionDynamicProgrammingPhaseCommand extends AbstractCustomPhaseCommand<Election> {
+
+    @Override
+    public void changeWorkingSolution(ScoreDirector<Election> scoreDirector) {
+        Election election = scoreDirector.getWorkingSolution();
+        List<FederalState> federalStateList = election.getFederalStateList();
+        boolean[] gamerWins = new ElectionDynamicProgrammingSolver().calculateGamerWins(federalStateList,
+                election.getElectoralVotesToWin(), election.getCandidates().length);
+        for (int i = 0; i < federalStateList.size(); i++) {
+            FederalState federalState = federalStateList.get(i);
+            String winningCandidate = gamerWins[i] ? Election.GAMER_CANDIDATE : Election.NORMAL_CANDIDATE;
+            if (!winningCandidate.equals(federalState.getWinningCandidate())) {
+                scoreDirector.beforeVariableChanged(federalState, "winningCandidate");
+                federalState.setWinningCandidate(winningCandidate);
+                scoreDirector.afterVariableChanged(federalState, "winningCandidate");
+            }
+        }
+        scoreDirector.triggerVariableListeners();
+    }
+
+}
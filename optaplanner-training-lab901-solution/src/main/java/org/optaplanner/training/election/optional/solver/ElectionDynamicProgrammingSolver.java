@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.solver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.solver.ElectionEasyScoreCalculator;
+
+/**
+ * Solves the election exactly, because it's a 0/1 knapsack problem:
+ * win at least {@link Election#getElectoralVotesToWin()} electoral votes
+ * with the lowest sum of {@link FederalState#getMinimumPluralityPopulation(int)}.
+ * <p>
+ * Dynamic programming over the federal states and the electoral votes,
+ * up to the votes to win plus the highest electoral votes of a single state,
+ * because more votes can't be part of an optimal solution.
+ * That's only (states * 325) steps for president2016.txt, so it finishes in milliseconds
+ * and its score is a baseline to benchmark the metaheuristics against.
+ * <p>
+ * In a primary, every federal state that the gamer candidate doesn't win goes to the {@link Election#NORMAL_CANDIDATE}.
+ * Winning more than half of the electoral votes implies the plurality of {@link ElectionEasyScoreCalculator},
+ * so the solution is only guaranteed optimal if {@link Election#getElectoralVotesToWin()} is a majority.
+ * <p>
+ * It keeps 1 row of population sums and 1 bit per state and votes to trace back the solution,
+ * so generated elections of thousands of units fit in memory too.
+ */
+public class ElectionDynamicProgrammingSolver {
+
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+    // 1 GB of trace back bits
+    private static final long MAXIMUM_BIT_COUNT = 8L * 1024L * 1024L * 1024L;
+
+    /**
+     * @param election never null, its {@link FederalState#getWinningCandidate()} are overwritten
+     * @return never null, the same instance, with an optimal {@link Election#getScore()}
+     */
+    public Election solve(Election election) {
+        List<FederalState> federalStateList = election.getFederalStateList();
+        boolean[] gamerWins = calculateGamerWins(federalStateList, election.getElectoralVotesToWin(),
+                election.getCandidates().length);
+        for (int i = 0; i < federalStateList.size(); i++) {
+            federalStateList.get(i).setWinningCandidate(
+                    gamerWins[i] ? Election.GAMER_CANDIDATE : Election.NORMAL_CANDIDATE);
+        }
+        election.setScore((HardSoftScore) new ElectionEasyScoreCalculator().calculateScore(election, 0));
+        return election;
+    }
+
+    /**
+     * Doesn't change the federal states.
+     * @param federalStateList never null
+     * @param electoralVotesToWin {@code >= 1}
+     * @param candidateCount {@code >= 2}, see {@link FederalState#getMinimumPluralityPopulation(int)}
+     * @return never null, for each federal state (in the same order)
+     * true if the {@link Election#GAMER_CANDIDATE} wins it in an optimal solution
+     */
+    public boolean[] calculateGamerWins(List<FederalState> federalStateList, int electoralVotesToWin,
+            int candidateCount) {
+        int size = federalStateList.size();
+        int maximumElectoralVotes = federalStateList.stream().mapToInt(FederalState::getElectoralVotes).max().orElse(0);
+        // Winning a state on top of a won election only adds population, so fewer votes suffice
+        int width = electoralVotesToWin + Math.max(maximumElectoralVotes, 1);
+        if ((long) size * width > MAXIMUM_BIT_COUNT) {
+            throw new IllegalArgumentException("The federalStateList size (" + size
+                    + ") times the width (" + width + ") of the electoralVotesToWin (" + electoralVotesToWin
+                    + ") plus the maximumElectoralVotes (" + maximumElectoralVotes
+                    + ") is too big for the exact solver.");
+        }
+        // minimumPopulations[v] = the lowest population sum to win exactly v electoral votes with the states so far
+        long[] minimumPopulations = new long[width];
+        Arrays.fill(minimumPopulations, UNREACHABLE);
+        minimumPopulations[0] = 0L;
+        // wonBits[i] bit v = state i is won for the gamer candidate in the lowest population sum for v votes
+        long[][] wonBits = new long[size][(width + 63) / 64];
+        for (int i = 0; i < size; i++) {
+            FederalState federalState = federalStateList.get(i);
+            int electoralVotes = federalState.getElectoralVotes();
+            long minimumPluralityPopulation = federalState.getMinimumPluralityPopulation(candidateCount);
+            if (electoralVotes == 0) {
+                continue;
+            }
+            long[] stateWonBits = wonBits[i];
+            // Descending, so each state is won at most once
+            for (int votes = width - 1; votes >= electoralVotes; votes--) {
+                long previousPopulation = minimumPopulations[votes - electoralVotes];
+                if (previousPopulation == UNREACHABLE) {
+                    continue;
+                }
+                long newPopulation = previousPopulation + minimumPluralityPopulation;
+                if (newPopulation < minimumPopulations[votes]) {
+                    minimumPopulations[votes] = newPopulation;
+                    stateWonBits[votes >>> 6] |= 1L << votes;
+                }
+            }
+        }
+        int votes = -1;
+        for (int v = electoralVotesToWin; v < width; v++) {
+            if (minimumPopulations[v] != UNREACHABLE
+                    && (votes < 0 || minimumPopulations[v] < minimumPopulations[votes])) {
+                votes = v;
+            }
+        }
+        if (votes < 0) {
+            // If the votes to win are unreachable, win as many electoral votes as possible,
+            // just like the hard score prefers
+            votes = electoralVotesToWin - 1;
+            while (minimumPopulations[votes] == UNREACHABLE) {
+                votes--;
+            }
+        }
+        boolean[] gamerWins = new boolean[size];
+        for (int i = size - 1; i >= 0; i--) {
+            if ((wonBits[i][votes >>> 6] & (1L << votes)) != 0L) {
+                gamerWins[i] = true;
+                votes -= federalStateList.get(i).getElectoralVotes();
+            }
+        }
+        return gamerWins;
+    }
+
+}
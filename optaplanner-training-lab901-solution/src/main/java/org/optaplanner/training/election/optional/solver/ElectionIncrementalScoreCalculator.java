@@ -16,20 +16,42 @@
 
 package org.optaplanner.training.election.optional.solver;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 import org.optaplanner.core.impl.score.director.incremental.IncrementalScoreCalculator;
 import org.optaplanner.training.election.domain.Election;
 import org.optaplanner.training.election.domain.FederalState;
 
+/**
+ * Keeps the electoral votes of every candidate in an {@code int[]},
+ * so a variable change is 1 hash lookup and 2 array updates, regardless of the number of candidates.
+ * Only {@link #calculateScore(int)} loops over the candidates,
+ * for the plurality of a primary of more than 2 candidates.
+ */
 public class ElectionIncrementalScoreCalculator implements IncrementalScoreCalculator<Election> {
 
-    private int gamerCandidateWins;
+    private int electoralVotesToWin;
+    private int candidateCount;
+    private Map<String, Integer> candidateIndexMap;
+    private int gamerCandidateIndex;
+
+    private int[] candidateWins;
     private int gamerMinimumPopulation;
 
     @Override
     public void resetWorkingSolution(Election election) {
-        gamerCandidateWins = 0;
+        electoralVotesToWin = election.getElectoralVotesToWin();
+        String[] candidates = election.getCandidates();
+        candidateCount = candidates.length;
+        candidateIndexMap = new HashMap<>(candidateCount * 2);
+        for (int i = 0; i < candidateCount; i++) {
+            candidateIndexMap.put(candidates[i], i);
+        }
+        gamerCandidateIndex = candidateIndexMap.get(Election.GAMER_CANDIDATE);
+        candidateWins = new int[candidateCount];
         gamerMinimumPopulation = 0;
         for (FederalState federalState : election.getFederalStateList()) {
             insert(federalState);
@@ -67,22 +89,44 @@ public class ElectionIncrementalScoreCalculator implements IncrementalScoreCalcu
     }
 
     private void insert(FederalState federalState) {
-        if (Election.GAMER_CANDIDATE.equals(federalState.getWinningCandidate())) {
-            gamerCandidateWins += federalState.getElectoralVotes();
-            gamerMinimumPopulation += federalState.getMinimumMajorityPopulation();
+        String winningCandidate = federalState.getWinningCandidate();
+        if (winningCandidate == null) {
+            return;
+        }
+        int candidateIndex = candidateIndexMap.get(winningCandidate);
+        candidateWins[candidateIndex] += federalState.getElectoralVotes();
+        if (candidateIndex == gamerCandidateIndex) {
+            gamerMinimumPopulation += federalState.getMinimumPluralityPopulation(candidateCount);
         }
     }
 
     private void retract(FederalState federalState) {
-        if (Election.GAMER_CANDIDATE.equals(federalState.getWinningCandidate())) {
-            gamerCandidateWins -= federalState.getElectoralVotes();
-            gamerMinimumPopulation -= federalState.getMinimumMajorityPopulation();
+        String winningCandidate = federalState.getWinningCandidate();
+        if (winningCandidate == null) {
+            return;
+        }
+        int candidateIndex = candidateIndexMap.get(winningCandidate);
+        candidateWins[candidateIndex] -= federalState.getElectoralVotes();
+        if (candidateIndex == gamerCandidateIndex) {
+            gamerMinimumPopulation -= federalState.getMinimumPluralityPopulation(candidateCount);
         }
     }
 
     @Override
     public Score calculateScore(int initScore) {
-        int hardScore = (gamerCandidateWins >= 270) ? 0 : (gamerCandidateWins - 270);
+        int gamerCandidateWins = candidateWins[gamerCandidateIndex];
+        int hardScore = (gamerCandidateWins >= electoralVotesToWin) ? 0 : (gamerCandidateWins - electoralVotesToWin);
+        if (candidateCount > 2) {
+            int otherCandidateMaximumWins = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                if (i != gamerCandidateIndex) {
+                    otherCandidateMaximumWins = Math.max(otherCandidateMaximumWins, candidateWins[i]);
+                }
+            }
+            if (otherCandidateMaximumWins >= gamerCandidateWins) {
+                hardScore -= otherCandidateMaximumWins - gamerCandidateWins + 1;
+            }
+        }
         return HardSoftScore.valueOf(initScore, hardScore, -gamerMinimumPopulation);
     }
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+
+/**
+ * Monte Carlo analysis of how stable the gamer candidate's coalition is when the populations are uncertain.
+ * <p>
+ * Every sample is a copy of the base election with each population perturbed uniformly by up to
+ * {@code relativeDeviation}. The dynamic programming phase of electionSensitivitySolverConfig.xml
+ * re-solves every sample from scratch, which takes milliseconds, see {@link ElectionDynamicProgrammingSolver}.
+ * The sample starts from the base solution's winning candidates, but that only saves score director updates:
+ * the phase only changes the federal states that move in or out of the coalition.
+ * The samples are spread over a fixed thread pool, each thread reuses 1 solver for all its samples.
+ */
+public class ElectionSensitivityAnalyzer {
+
+    private final SolverFactory<Election> solverFactory;
+    private final int threadCount;
+
+    /**
+     * @param solverFactory never null, should solve a sample in milliseconds
+     * @param threadCount {@code >= 1}
+     */
+    public ElectionSensitivityAnalyzer(SolverFactory<Election> solverFactory, int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The threadCount (" + threadCount + ") must be at least 1.");
+        }
+        this.solverFactory = solverFactory;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * @param baseElection never null, solved
+     * @param sampleCount {@code >= 1}
+     * @param relativeDeviation {@code >= 0.0}, for example {@code 0.02} for plus or minus 2%
+     * @param seed the samples are reproducible for the same seed
+     * @return never null, for each federal state of the base election (in the same order)
+     * the number of samples in which the gamer candidate wins it
+     */
+    public int[] analyze(Election baseElection, int sampleCount, double relativeDeviation, long seed) {
+        int federalStateListSize = baseElection.getFederalStateList().size();
+        int usedThreadCount = Math.min(threadCount, sampleCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(usedThreadCount);
+        try {
+            List<Future<int[]>> futureList = new ArrayList<>(usedThreadCount);
+            for (int threadIndex = 0; threadIndex < usedThreadCount; threadIndex++) {
+                int firstSampleIndex = threadIndex;
+                futureList.add(executorService.submit(() -> {
+                    Solver<Election> solver = solverFactory.buildSolver();
+                    int[] gamerWinCounts = new int[federalStateListSize];
+                    for (int i = firstSampleIndex; i < sampleCount; i += usedThreadCount) {
+                        // A random per sample, so the result doesn't depend on the thread count
+                        Random random = new Random(seed + i);
+                        Election sample = solver.solve(createSample(baseElection, relativeDeviation, random));
+                        List<FederalState> federalStateList = sample.getFederalStateList();
+                        for (int j = 0; j < federalStateListSize; j++) {
+                            if (Election.GAMER_CANDIDATE.equals(federalStateList.get(j).getWinningCandidate())) {
+                                gamerWinCounts[j]++;
+                            }
+                        }
+                    }
+                    return gamerWinCounts;
+                }));
+            }
+            int[] gamerWinCounts = new int[federalStateListSize];
+            for (Future<int[]> future : futureList) {
+                int[] threadGamerWinCounts;
+                try {
+                    threadGamerWinCounts = future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while solving the samples.", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Solving the samples failed.", e.getCause());
+                }
+                for (int j = 0; j < federalStateListSize; j++) {
+                    gamerWinCounts[j] += threadGamerWinCounts[j];
+                }
+            }
+            return gamerWinCounts;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private Election createSample(Election baseElection, double relativeDeviation, Random random) {
+        List<FederalState> baseFederalStateList = baseElection.getFederalStateList();
+        List<FederalState> federalStateList = new ArrayList<>(baseFederalStateList.size());
+        for (FederalState baseFederalState : baseFederalStateList) {
+            double factor = 1.0 + (random.nextDouble() * 2.0 - 1.0) * relativeDeviation;
+            FederalState federalState = new FederalState(baseFederalState.getName(),
+                    (int) Math.round(baseFederalState.getPopulation() * factor),
+                    baseFederalState.getElectoralVotes());
+            // Start from the base solution, so the phase only changes what differs
+            federalState.setWinningCandidate(baseFederalState.getWinningCandidate());
+            federalStateList.add(federalState);
+        }
+        return new Election(federalStateList, baseElection.getElectoralVotesToWin(), baseElection.getCandidates());
+    }
+
+}
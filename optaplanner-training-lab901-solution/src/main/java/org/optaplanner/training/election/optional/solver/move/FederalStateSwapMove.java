@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.solver.move;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.optaplanner.core.impl.heuristic.move.AbstractMove;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.training.election.domain.FederalState;
+
+/**
+ * Swaps the winning candidate of 1 federal state with that of 1 or more other federal states,
+ * for example a gamer won state for 2 normal won states.
+ * <p>
+ * It's only doable if all right federal states have the same winning candidate,
+ * which differs from the left one's. So a swap of the same move undoes it.
+ */
+public class FederalStateSwapMove extends AbstractMove {
+
+    private final FederalState leftFederalState;
+    private final FederalState[] rightFederalStates;
+
+    public FederalStateSwapMove(FederalState leftFederalState, FederalState... rightFederalStates) {
+        this.leftFederalState = leftFederalState;
+        this.rightFederalStates = rightFederalStates;
+    }
+
+    public FederalState getLeftFederalState() {
+        return leftFederalState;
+    }
+
+    public FederalState[] getRightFederalStates() {
+        return rightFederalStates;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector scoreDirector) {
+        String leftCandidate = leftFederalState.getWinningCandidate();
+        String rightCandidate = rightFederalStates[0].getWinningCandidate();
+        if (leftCandidate == null || rightCandidate == null || leftCandidate.equals(rightCandidate)) {
+            return false;
+        }
+        for (int i = 1; i < rightFederalStates.length; i++) {
+            if (!rightCandidate.equals(rightFederalStates[i].getWinningCandidate())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public FederalStateSwapMove createUndoMove(ScoreDirector scoreDirector) {
+        return new FederalStateSwapMove(leftFederalState, rightFederalStates);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector scoreDirector) {
+        String leftCandidate = leftFederalState.getWinningCandidate();
+        String rightCandidate = rightFederalStates[0].getWinningCandidate();
+        scoreDirector.beforeVariableChanged(leftFederalState, "winningCandidate");
+        leftFederalState.setWinningCandidate(rightCandidate);
+        scoreDirector.afterVariableChanged(leftFederalState, "winningCandidate");
+        for (FederalState rightFederalState : rightFederalStates) {
+            scoreDirector.beforeVariableChanged(rightFederalState, "winningCandidate");
+            rightFederalState.setWinningCandidate(leftCandidate);
+            scoreDirector.afterVariableChanged(rightFederalState, "winningCandidate");
+        }
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningEntities() {
+        List<FederalState> federalStateList = new ArrayList<>(rightFederalStates.length + 1);
+        federalStateList.add(leftFederalState);
+        federalStateList.addAll(Arrays.asList(rightFederalStates));
+        return federalStateList;
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningValues() {
+        return Arrays.asList(leftFederalState.getWinningCandidate(), rightFederalStates[0].getWinningCandidate());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o instanceof FederalStateSwapMove) {
+            FederalStateSwapMove other = (FederalStateSwapMove) o;
+            return leftFederalState == other.leftFederalState
+                    && Arrays.equals(rightFederalStates, other.rightFederalStates);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * leftFederalState.hashCode() + Arrays.hashCode(rightFederalStates);
+    }
+
+    @Override
+    public String toString() {
+        return leftFederalState + " {" + leftFederalState.getWinningCandidate() + "} <-> "
+                + Arrays.toString(rightFederalStates) + " {" + rightFederalStates[0].getWinningCandidate() + "}";
+    }
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.solver.move.factory;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveListFactory;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.optional.domain.FederalStateDifficultyComparator;
+
+/**
+ * Random swap moves mostly pair federal states of very different sizes, which rarely improves the score.
+ * The subclasses only create swaps between federal states that are nearby:
+ * close in electoral votes and close in the ratio of electoral votes to minimum majority population.
+ * <p>
+ * The moves only depend on the problem facts, so configure {@code <cacheType>PHASE</cacheType>}
+ * to calculate the neighborhoods once per phase instead of once per step.
+ */
+public abstract class AbstractNearbyFederalStateMoveListFactory implements MoveListFactory<Election> {
+
+    protected static final int NEARBY_SIZE = 20;
+
+    /**
+     * @param federalStateList never null
+     * @return never null, for every federal state index its rank when sorted by {@link FederalStateDifficultyComparator},
+     * so 0 has the lowest electoral votes per minimum majority population.
+     */
+    protected static int[] calculateRatioRanks(List<FederalState> federalStateList) {
+        Comparator<FederalState> ratioComparator = new FederalStateDifficultyComparator();
+        int[] sortedIndexes = IntStream.range(0, federalStateList.size()).boxed()
+                .sorted(Comparator.comparing(federalStateList::get, ratioComparator))
+                .mapToInt(Integer::intValue).toArray();
+        int[] ratioRanks = new int[sortedIndexes.length];
+        for (int rank = 0; rank < sortedIndexes.length; rank++) {
+            ratioRanks[sortedIndexes[rank]] = rank;
+        }
+        return ratioRanks;
+    }
+
+    /**
+     * Sorts the federal states once by electoral votes and ratio rank,
+     * so finding the nearest ones of a federal state is a binary search instead of a scan and a sort of all of them.
+     */
+    protected static class NearbyFederalStateIndex {
+
+        private final List<FederalState> federalStateList;
+        private final int[] ratioRanks;
+        // The federal state indexes, sorted by electoral votes first and ratio rank second
+        private final int[] sortedIndexes;
+        private final int[] sortedRatioRanks;
+        // The distinct electoral votes, ascending, and for each one where its federal states start in sortedIndexes
+        private final int[] distinctElectoralVotes;
+        private final int[] groupStarts;
+
+        /**
+         * @param federalStateList never null
+         * @param ratioRanks never null, see {@link #calculateRatioRanks(List)}
+         */
+        public NearbyFederalStateIndex(List<FederalState> federalStateList, int[] ratioRanks) {
+            this.federalStateList = federalStateList;
+            this.ratioRanks = ratioRanks;
+            int size = federalStateList.size();
+            // Ratio ranks are unique, so the index of the rank is the key of the federal state
+            int[] indexesByRatioRank = new int[size];
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                indexesByRatioRank[ratioRanks[i]] = i;
+                keys[i] = (long) federalStateList.get(i).getElectoralVotes() * size + ratioRanks[i];
+            }
+            Arrays.sort(keys);
+            sortedIndexes = new int[size];
+            sortedRatioRanks = new int[size];
+            int[] distinctElectoralVotesBuffer = new int[size];
+            int[] groupStartsBuffer = new int[size + 1];
+            int groupCount = 0;
+            for (int k = 0; k < size; k++) {
+                int electoralVotes = (int) (keys[k] / size);
+                sortedRatioRanks[k] = (int) (keys[k] % size);
+                sortedIndexes[k] = indexesByRatioRank[sortedRatioRanks[k]];
+                if (groupCount == 0 || distinctElectoralVotesBuffer[groupCount - 1] != electoralVotes) {
+                    distinctElectoralVotesBuffer[groupCount] = electoralVotes;
+                    groupStartsBuffer[groupCount] = k;
+                    groupCount++;
+                }
+            }
+            groupStartsBuffer[groupCount] = size;
+            distinctElectoralVotes = Arrays.copyOf(distinctElectoralVotesBuffer, groupCount);
+            groupStarts = Arrays.copyOf(groupStartsBuffer, groupCount + 1);
+        }
+
+        /**
+         * @param originIndex the index of the federal state to find the nearby federal states of, excluded itself
+         * @param maximumElectoralVotes only federal states with this many electoral votes or less are nearby candidates
+         * @param nearbySize {@code >= 1}
+         * @return never null, at most {@code nearbySize} indexes, nearest first:
+         * by the electoral votes difference first, the ratio rank difference second and the index third
+         */
+        public int[] findNearbyIndexes(int originIndex, int maximumElectoralVotes, int nearbySize) {
+            return findNearestIndexes(federalStateList.get(originIndex).getElectoralVotes(), ratioRanks[originIndex],
+                    maximumElectoralVotes, originIndex, -1, nearbySize);
+        }
+
+        /**
+         * @param leftIndex the federal state to compare the ratio rank with, excluded itself
+         * @param excludedIndex another excluded federal state
+         * @param electoralVotes the electoral votes to come as close to as possible
+         * @return -1 if there is no other federal state, otherwise the nearest one by the electoral votes difference
+         * first, the ratio rank difference with the left federal state second and the index third
+         */
+        public int findNearestIndex(int leftIndex, int excludedIndex, int electoralVotes) {
+            int[] nearestIndexes = findNearestIndexes(electoralVotes, ratioRanks[leftIndex],
+                    Integer.MAX_VALUE, leftIndex, excludedIndex, 1);
+            return nearestIndexes.length == 0 ? -1 : nearestIndexes[0];
+        }
+
+        /**
+         * Visits the electoral votes groups outwards from the target electoral votes.
+         * The 2 groups at the same distance, below and above, are merged.
+         */
+        private int[] findNearestIndexes(int electoralVotes, int ratioRank, int maximumElectoralVotes,
+                int excludedIndex1, int excludedIndex2, int nearestSize) {
+            int[] nearestIndexes = new int[nearestSize];
+            int count = 0;
+            // The groups from groupLimit onwards have too many electoral votes
+            int groupLimit = upperBound(distinctElectoralVotes, maximumElectoralVotes);
+            int highGroup = Math.min(upperBound(distinctElectoralVotes, electoralVotes - 1), groupLimit);
+            int lowGroup = highGroup - 1;
+            while (count < nearestSize && (lowGroup >= 0 || highGroup < groupLimit)) {
+                long lowDistance = lowGroup >= 0
+                        ? (long) electoralVotes - distinctElectoralVotes[lowGroup] : Long.MAX_VALUE;
+                long highDistance = highGroup < groupLimit
+                        ? (long) distinctElectoralVotes[highGroup] - electoralVotes : Long.MAX_VALUE;
+                long distance = Math.min(lowDistance, highDistance);
+                GroupCursor lowCursor = null;
+                if (lowDistance == distance) {
+                    lowCursor = new GroupCursor(lowGroup, ratioRank, excludedIndex1, excludedIndex2);
+                    lowGroup--;
+                }
+                GroupCursor highCursor = null;
+                if (highDistance == distance) {
+                    highCursor = new GroupCursor(highGroup, ratioRank, excludedIndex1, excludedIndex2);
+                    highGroup++;
+                }
+                while (count < nearestSize) {
+                    GroupCursor cursor = findNearestCursor(lowCursor, highCursor);
+                    if (cursor == null) {
+                        break;
+                    }
+                    nearestIndexes[count++] = cursor.next();
+                }
+            }
+            return Arrays.copyOf(nearestIndexes, count);
+        }
+
+        /**
+         * @return the number of values that are {@code <= key}
+         */
+        private static int upperBound(int[] sortedValues, int key) {
+            int low = 0;
+            int high = sortedValues.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sortedValues[middle] <= key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return null if neither has a next federal state
+         */
+        private static GroupCursor findNearestCursor(GroupCursor a, GroupCursor b) {
+            if (a == null || !a.hasNext()) {
+                return (b == null || !b.hasNext()) ? null : b;
+            } else if (b == null || !b.hasNext()) {
+                return a;
+            }
+            int aDistance = a.peekDistance();
+            int bDistance = b.peekDistance();
+            return (bDistance < aDistance || (bDistance == aDistance && b.peekIndex() < a.peekIndex())) ? b : a;
+        }
+
+        /**
+         * Iterates the federal states of 1 electoral votes group by their ratio rank difference,
+         * outwards from the ratio rank.
+         */
+        private class GroupCursor {
+
+            private final int start;
+            private final int end;
+            private final int ratioRank;
+            private final int excludedIndex1;
+            private final int excludedIndex2;
+            private int down;
+            private int up;
+
+            private GroupCursor(int group, int ratioRank, int excludedIndex1, int excludedIndex2) {
+                start = groupStarts[group];
+                end = groupStarts[group + 1];
+                this.ratioRank = ratioRank;
+                this.excludedIndex1 = excludedIndex1;
+                this.excludedIndex2 = excludedIndex2;
+                int low = start;
+                int high = end;
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    if (sortedRatioRanks[middle] < ratioRank) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                down = low - 1;
+                up = low;
+                skipExcluded();
+            }
+
+            private void skipExcluded() {
+                while (down >= start && isExcluded(sortedIndexes[down])) {
+                    down--;
+                }
+                while (up < end && isExcluded(sortedIndexes[up])) {
+                    up++;
+                }
+            }
+
+            private boolean isExcluded(int index) {
+                return index == excludedIndex1 || index == excludedIndex2;
+            }
+
+            private boolean hasNext() {
+                return down >= start || up < end;
+            }
+
+            private boolean takesUp() {
+                if (down < start) {
+                    return true;
+                } else if (up >= end) {
+                    return false;
+                }
+                int downDistance = ratioRank - sortedRatioRanks[down];
+                int upDistance = sortedRatioRanks[up] - ratioRank;
+                return upDistance < downDistance
+                        || (upDistance == downDistance && sortedIndexes[up] < sortedIndexes[down]);
+            }
+
+            private int peekDistance() {
+                return takesUp() ? sortedRatioRanks[up] - ratioRank : ratioRank - sortedRatioRanks[down];
+            }
+
+            private int peekIndex() {
+                return takesUp() ? sortedIndexes[up] : sortedIndexes[down];
+            }
+
+            private int next() {
+                int index;
+                if (takesUp()) {
+                    index = sortedIndexes[up++];
+                } else {
+                    index = sortedIndexes[down--];
+                }
+                skipExcluded();
+                return index;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.solver.move.factory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.optional.solver.move.FederalStateSwapMove;
+
+/**
+ * Swaps every federal state with pairs of smaller federal states that together have about the same electoral votes.
+ * For example a 2 electoral votes state for 2 states of 1 electoral vote,
+ * which a 1 for 1 swap can't do without losing or gaining an electoral vote.
+ * <p>
+ * For each federal state, the first state of the pair is 1 of its {@value #NEARBY_SIZE} nearest smaller states.
+ * The second state makes up the rest of the electoral votes, with the nearest ratio.
+ * Only the swaps between a gamer won state and a normal won pair (or the other way around) are doable.
+ */
+public class NearbyFederalStateOneForTwoSwapMoveListFactory extends AbstractNearbyFederalStateMoveListFactory {
+
+    @Override
+    public List<FederalStateSwapMove> createMoveList(Election election) {
+        List<FederalState> federalStateList = election.getFederalStateList();
+        NearbyFederalStateIndex nearbyIndex = new NearbyFederalStateIndex(federalStateList,
+                calculateRatioRanks(federalStateList));
+        Set<FederalStateSwapMove> moveSet = new LinkedHashSet<>(federalStateList.size() * NEARBY_SIZE);
+        for (int leftIndex = 0; leftIndex < federalStateList.size(); leftIndex++) {
+            int leftElectoralVotes = federalStateList.get(leftIndex).getElectoralVotes();
+            for (int firstRightIndex : nearbyIndex.findNearbyIndexes(
+                    leftIndex, leftElectoralVotes - 1, NEARBY_SIZE)) {
+                int remainingElectoralVotes = leftElectoralVotes
+                        - federalStateList.get(firstRightIndex).getElectoralVotes();
+                int secondRightIndex = nearbyIndex.findNearestIndex(
+                        leftIndex, firstRightIndex, remainingElectoralVotes);
+                if (secondRightIndex < 0) {
+                    continue;
+                }
+                // The order of the pair doesn't matter
+                moveSet.add(new FederalStateSwapMove(federalStateList.get(leftIndex),
+                        federalStateList.get(Math.min(firstRightIndex, secondRightIndex)),
+                        federalStateList.get(Math.max(firstRightIndex, secondRightIndex))));
+            }
+        }
+        return new ArrayList<>(moveSet);
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.optional.solver.move.factory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+import org.optaplanner.training.election.optional.solver.move.FederalStateSwapMove;
+
+/**
+ * Swaps every federal state with its {@value #NEARBY_SIZE} nearest federal states.
+ * Only the swaps between a gamer won and a normal won federal state are doable.
+ */
+public class NearbyFederalStateSwapMoveListFactory extends AbstractNearbyFederalStateMoveListFactory {
+
+    @Override
+    public List<FederalStateSwapMove> createMoveList(Election election) {
+        List<FederalState> federalStateList = election.getFederalStateList();
+        NearbyFederalStateIndex nearbyIndex = new NearbyFederalStateIndex(federalStateList,
+                calculateRatioRanks(federalStateList));
+        // Nearby isn't symmetric, so a pair can be found from both sides
+        Set<FederalStateSwapMove> moveSet = new LinkedHashSet<>(federalStateList.size() * NEARBY_SIZE);
+        for (int leftIndex = 0; leftIndex < federalStateList.size(); leftIndex++) {
+            for (int rightIndex : nearbyIndex.findNearbyIndexes(leftIndex, Integer.MAX_VALUE, NEARBY_SIZE)) {
+                moveSet.add(new FederalStateSwapMove(federalStateList.get(Math.min(leftIndex, rightIndex)),
+                        federalStateList.get(Math.max(leftIndex, rightIndex))));
+            }
+        }
+        return new ArrayList<>(moveSet);
+    }
+
+}
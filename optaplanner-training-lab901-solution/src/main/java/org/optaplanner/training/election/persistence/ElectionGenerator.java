@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.persistence;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+
+/**
+ * Generates synthetic elections with more federal states than president2016.txt.
+ * Like in the real one, there are 538 electoral votes in total, every federal state has at least 1
+ * and the rest is apportioned by population.
+ * <p>
+ * To measure how the solvers scale, it also generates elections of 1 000 to 1 000 000 units,
+ * such as counties or precincts, with the population of the real election spread over them.
+ * Every unit has 1 electoral vote and as many electoral votes again are apportioned by population,
+ * so small units have more electoral votes per citizen, just like small states.
+ * Run it with {@code <unitListSize> [electoralVotesToWinRatio]}, for example {@code 1000000 0.6}.
+ */
+public class ElectionGenerator {
+
+    private static final int ELECTORAL_VOTES_TOTAL = 538;
+    private static final long POPULATION_TOTAL = 309_000_000L;
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            int unitListSize = Integer.parseInt(args[0]);
+            double electoralVotesToWinRatio = args.length > 1 ? Double.parseDouble(args[1]) : 0.5;
+            new ElectionGenerator().generateAndWriteUnitElection(unitListSize, electoralVotesToWinRatio);
+            return;
+        }
+        new ElectionGenerator().generateAndWriteElection(100);
+        new ElectionGenerator().generateAndWriteElection(200);
+        new ElectionGenerator().generateAndWriteElection(400);
+        new ElectionGenerator().generateAndWriteUnitElection(1000, 0.5);
+        new ElectionGenerator().generateAndWriteUnitElection(10000, 0.5);
+    }
+
+    protected Random random = new Random(37);
+    protected ElectionSolutionFileIO solutionFileIO = new ElectionSolutionFileIO();
+
+    public void generateAndWriteElection(int federalStateListSize) {
+        Election election = generateElection(federalStateListSize);
+        solutionFileIO.write(election, new File("data/election/import/synthetic-"
+                + federalStateListSize + "states.txt"));
+    }
+
+    public void generateAndWriteUnitElection(int unitListSize, double electoralVotesToWinRatio) {
+        Election election = generateUnitElection(unitListSize, electoralVotesToWinRatio);
+        String ratioSuffix = electoralVotesToWinRatio == 0.5 ? ""
+                : "-" + Math.round(electoralVotesToWinRatio * 100.0) + "percent";
+        solutionFileIO.write(election, new File("data/election/import/synthetic-"
+                + unitListSize + "units" + ratioSuffix + ".txt"));
+    }
+
+    public Election generateElection(int federalStateListSize) {
+        if (federalStateListSize > ELECTORAL_VOTES_TOTAL) {
+            throw new IllegalArgumentException("The federalStateListSize (" + federalStateListSize
+                    + ") is higher than the electoral votes total (" + ELECTORAL_VOTES_TOTAL + ").");
+        }
+        // Log-normal, like the populations of real states: a few big ones and a long tail of small ones
+        int[] populations = generatePopulations(federalStateListSize, 15.0, 1.0);
+        int[] electoralVotes = apportionElectoralVotes(populations, ELECTORAL_VOTES_TOTAL);
+        List<FederalState> federalStateList = new ArrayList<>(federalStateListSize);
+        for (int i = 0; i < federalStateListSize; i++) {
+            federalStateList.add(new FederalState("State " + i, populations[i], electoralVotes[i]));
+        }
+        return new Election(federalStateList);
+    }
+
+    /**
+     * @param unitListSize {@code >= 1}
+     * @param electoralVotesToWinRatio {@code 0.0 < ratio < 1.0}, the gamer candidate needs more than this
+     * share of the electoral votes, for example 0.5 for a majority or 0.6 for a supermajority
+     * @return never null
+     */
+    public Election generateUnitElection(int unitListSize, double electoralVotesToWinRatio) {
+        if (electoralVotesToWinRatio <= 0.0 || electoralVotesToWinRatio >= 1.0) {
+            throw new IllegalArgumentException("The electoralVotesToWinRatio (" + electoralVotesToWinRatio
+                    + ") must be between 0.0 and 1.0.");
+        }
+        // Log-normal like the populations of real counties, which vary more than those of states.
+        // The mean of a log-normal distribution is exp(mu + sigma^2 / 2), so the total is about POPULATION_TOTAL.
+        double sigma = 1.5;
+        double mu = Math.log((double) POPULATION_TOTAL / unitListSize) - (sigma * sigma / 2.0);
+        int[] populations = generatePopulations(unitListSize, mu, sigma);
+        int electoralVotesTotal = unitListSize * 2;
+        int[] electoralVotes = apportionElectoralVotes(populations, electoralVotesTotal);
+        List<FederalState> federalStateList = new ArrayList<>(unitListSize);
+        for (int i = 0; i < unitListSize; i++) {
+            federalStateList.add(new FederalState("Unit " + i, populations[i], electoralVotes[i]));
+        }
+        int electoralVotesToWin = (int) (electoralVotesTotal * electoralVotesToWinRatio) + 1;
+        return new Election(federalStateList, electoralVotesToWin);
+    }
+
+    private int[] generatePopulations(int size, double mu, double sigma) {
+        int[] populations = new int[size];
+        for (int i = 0; i < size; i++) {
+            populations[i] = (int) Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        }
+        return populations;
+    }
+
+    /**
+     * Every federal state gets 1 electoral vote and the rest is apportioned with the largest remainder method.
+     * @param populations never null
+     * @param electoralVotesTotal {@code >= populations.length}
+     * @return never null, the electoral votes for each population
+     */
+    private int[] apportionElectoralVotes(int[] populations, int electoralVotesTotal) {
+        int size = populations.length;
+        long populationTotal = 0L;
+        for (int population : populations) {
+            populationTotal += population;
+        }
+        int apportionedVotesTotal = electoralVotesTotal - size;
+        int[] electoralVotes = new int[size];
+        double[] remainders = new double[size];
+        int remainingVotes = apportionedVotesTotal;
+        for (int i = 0; i < size; i++) {
+            double quota = (double) populations[i] * apportionedVotesTotal / populationTotal;
+            int floor = (int) quota;
+            electoralVotes[i] = 1 + floor;
+            remainders[i] = quota - floor;
+            remainingVotes -= floor;
+        }
+        // Sorted once instead of searching the largest remainder per vote, because there are a million units
+        int[] remainderOrder = IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> -remainders[i]).thenComparingInt(i -> i))
+                .mapToInt(Integer::intValue).limit(remainingVotes).toArray();
+        for (int i : remainderOrder) {
+            electoralVotes[i]++;
+        }
+        return electoralVotes;
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.election.persistence;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.optaplanner.persistence.common.api.domain.solution.SolutionFileIO;
+import org.optaplanner.training.election.domain.Election;
+import org.optaplanner.training.election.domain.FederalState;
+
+/**
+ * Reads and writes lines of {@code name,population,electoralVotes}, such as president2016.txt.
+ * Output files have a fourth token with the winning candidate.
+ * Lines that are empty or start with {@code #} are ignored, except for 2 optional header lines:
+ * {@value #ELECTORAL_VOTES_TO_WIN_PREFIX}, which is only written if it isn't a majority,
+ * see {@link Election#getElectoralVotesToWin()},
+ * and {@value #CANDIDATES_PREFIX} with comma separated names, which is only written for a primary,
+ * see {@link Election#getCandidates()}.
+ */
+public class ElectionSolutionFileIO implements SolutionFileIO<Election> {
+
+    public static final String ELECTORAL_VOTES_TO_WIN_PREFIX = "# electoralVotesToWin=";
+    public static final String CANDIDATES_PREFIX = "# candidates=";
+
+    @Override
+    public String getInputFileExtension() {
+        return "txt";
+    }
+
+    @Override
+    public String getOutputFileExtension() {
+        return "txt";
+    }
+
+    @Override
+    public Election read(File inputFile) {
+        try (Stream<String> stream = Files.lines(inputFile.toPath(), StandardCharsets.UTF_8)) {
+            List<FederalState> federalStateList = new ArrayList<>();
+            Integer electoralVotesToWin = null;
+            String[] candidates = Election.createCandidates(2);
+            for (Iterator<String> it = stream.iterator(); it.hasNext(); ) {
+                String line = it.next();
+                if (line.startsWith(ELECTORAL_VOTES_TO_WIN_PREFIX)) {
+                    electoralVotesToWin = Integer.parseInt(line.substring(ELECTORAL_VOTES_TO_WIN_PREFIX.length()));
+                    continue;
+                }
+                if (line.startsWith(CANDIDATES_PREFIX)) {
+                    candidates = line.substring(CANDIDATES_PREFIX.length()).split(",");
+                    continue;
+                }
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] tokens = line.split(",");
+                if (tokens.length != 3 && tokens.length != 4) {
+                    throw new IllegalStateException("The line (" + line + ") does not have 3 or 4 tokens.");
+                }
+                FederalState federalState = new FederalState(
+                        tokens[0], Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+                if (tokens.length == 4) {
+                    federalState.setWinningCandidate(tokens[3]);
+                }
+                federalStateList.add(federalState);
+            }
+            List<String> candidateList = Arrays.asList(candidates);
+            for (FederalState federalState : federalStateList) {
+                if (federalState.getWinningCandidate() != null
+                        && !candidateList.contains(federalState.getWinningCandidate())) {
+                    throw new IllegalStateException("The federalState (" + federalState
+                            + ")'s winningCandidate (" + federalState.getWinningCandidate()
+                            + ") is not one of the candidates (" + candidateList + ").");
+                }
+            }
+            return new Election(federalStateList,
+                    electoralVotesToWin == null ? Election.calculateMajority(federalStateList) : electoralVotesToWin,
+                    candidates);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Reading inputFile (" + inputFile + ") failed.", e);
+        }
+    }
+
+    @Override
+    public void write(Election election, File outputFile) {
+        try (BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+            boolean solved = election.getFederalStateList().stream()
+                    .anyMatch((federalState) -> federalState.getWinningCandidate() != null);
+            writer.write(solved ? "# State,population,electoralVotes,winningCandidate\n"
+                    : "# State,population,electoralVotes\n");
+            if (election.getElectoralVotesToWin() != Election.calculateMajority(election.getFederalStateList())) {
+                writer.write(ELECTORAL_VOTES_TO_WIN_PREFIX + election.getElectoralVotesToWin() + "\n");
+            }
+            if (!Arrays.equals(election.getCandidates(), Election.createCandidates(2))) {
+                writer.write(CANDIDATES_PREFIX + String.join(",", election.getCandidates()) + "\n");
+            }
+            for (FederalState federalState : election.getFederalStateList()) {
+                writer.write(federalState.getName() + "," + federalState.getPopulation()
+                        + "," + federalState.getElectoralVotes());
+                if (federalState.getWinningCandidate() != null) {
+                    writer.write("," + federalState.getWinningCandidate());
+                }
+                writer.write("\n");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing outputFile (" + outputFile + ") failed.", e);
+        }
+    }
+
+}
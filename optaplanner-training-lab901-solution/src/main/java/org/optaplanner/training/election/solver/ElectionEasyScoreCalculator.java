@@ -26,15 +26,36 @@ public class ElectionEasyScoreCalculator implements EasyScoreCalculator<Election
 
     @Override
     public Score calculateScore(Election election, int initScore) {
+        String[] candidates = election.getCandidates();
+        int[] candidateWins = new int[candidates.length];
         int gamerCandidateWins = 0;
         int gamerMinimumPopulation = 0;
         for (FederalState federalState : election.getFederalStateList()) {
+            for (int i = 0; i < candidates.length; i++) {
+                if (candidates[i].equals(federalState.getWinningCandidate())) {
+                    candidateWins[i] += federalState.getElectoralVotes();
+                }
+            }
             if (Election.GAMER_CANDIDATE.equals(federalState.getWinningCandidate())) {
                 gamerCandidateWins += federalState.getElectoralVotes();
-                gamerMinimumPopulation += federalState.getMinimumMajorityPopulation();
+                gamerMinimumPopulation += federalState.getMinimumPluralityPopulation(candidates.length);
+            }
+        }
+        int electoralVotesToWin = election.getElectoralVotesToWin();
+        int hardScore = (gamerCandidateWins >= electoralVotesToWin) ? 0 : (gamerCandidateWins - electoralVotesToWin);
+        // In a primary with more than 2 candidates, the gamer candidate also needs the most electoral votes.
+        // With 2 candidates, the hard score stays the same as before primaries existed.
+        if (candidates.length > 2) {
+            int otherCandidateMaximumWins = 0;
+            for (int i = 0; i < candidates.length; i++) {
+                if (!Election.GAMER_CANDIDATE.equals(candidates[i])) {
+                    otherCandidateMaximumWins = Math.max(otherCandidateMaximumWins, candidateWins[i]);
+                }
+            }
+            if (otherCandidateMaximumWins >= gamerCandidateWins) {
+                hardScore -= otherCandidateMaximumWins - gamerCandidateWins + 1;
             }
         }
-        int hardScore = (gamerCandidateWins >= 270) ? 0 : (gamerCandidateWins - 270);
         return HardSoftScore.valueOf(initScore, hardScore, -gamerMinimumPopulation);
     }
 
@@ -23,8 +23,10 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 
+import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.SolverFactory;
 import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.optional.event.BestSolutionEventLogger;
 import org.optaplanner.training.workerrostering.persistence.WorkerRosteringGenerator;
 import org.optaplanner.training.workerrostering.persistence.WorkerRosteringSolutionFileIO;
 
@@ -37,14 +39,22 @@ public class WorkerRosteringApp {
         // WorkerRosteringGenerator generator = new WorkerRosteringGenerator();
         // Roster roster = generator.generateRoster(10, 28);
 
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss", Locale.ENGLISH));
+
         // LAB-SOLUTION-START
         SolverFactory<Roster> solverFactory = SolverFactory.createFromXmlResource(
                 "org/optaplanner/training/workerrostering/solver/workerRosteringSolverConfig.xml");
-        roster = solverFactory.buildSolver().solve(roster);
+        Solver<Roster> solver = solverFactory.buildSolver();
+        // Optional: log the timeline of best solutions to analyze the time to quality
+        File eventLogFile = new File("data/workerrostering/export/" + filename + "-bestSolutions" + timestamp + ".jsonl");
+        try (BestSolutionEventLogger eventLogger = new BestSolutionEventLogger(
+                solver.getScoreDirectorFactory(), eventLogFile)) {
+            solver.addEventListener(eventLogger);
+            roster = solver.solve(roster);
+        }
         // LAB-SOLUTION-END
 
-        File outputSolutionFile = new File("data/workerrostering/export/" + filename + "-solved"
-                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss", Locale.ENGLISH)) + ".xlsx");
+        File outputSolutionFile = new File("data/workerrostering/export/" + filename + "-solved" + timestamp + ".xlsx");
         solutionFileIO.write(roster, outputSolutionFile);
         Desktop desktop = Desktop.getDesktop();
         if (desktop.isSupported(Desktop.Action.OPEN)) {
@@ -16,15 +16,21 @@
 
 package org.optaplanner.training.workerrostering.domain;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
 import org.optaplanner.core.api.domain.solution.PlanningScore;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.domain.solution.cloner.DeepPlanningClone;
 import org.optaplanner.core.api.domain.solution.drools.ProblemFactCollectionProperty;
 import org.optaplanner.core.api.domain.solution.drools.ProblemFactProperty;
 import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.training.workerrostering.optional.domain.MovableShiftAssignmentFilter;
 
 @PlanningSolution
 public class Roster {
@@ -43,6 +49,11 @@ public class Roster {
 
     @PlanningEntityCollectionProperty
     private List<ShiftAssignment> shiftAssignmentList;
+    // Index of the shiftAssignmentList elements that aren't pinned, kept up to date by the optional.realtime changes
+    @DeepPlanningClone
+    private List<ShiftAssignment> movableShiftAssignmentList;
+    // Positions in the shiftAssignmentList, which are the same in every planning clone, so the clones share it
+    private Map<TimeSlot, int[]> timeSlotToShiftAssignmentIndexesMap;
 
     @PlanningScore
     private HardSoftScore score = null;
@@ -59,6 +70,17 @@ public class Roster {
         this.timeSlotList = timeSlotList;
         this.employeeList = employeeList;
         this.shiftAssignmentList = shiftAssignmentList;
+        movableShiftAssignmentList = new ArrayList<>(shiftAssignmentList.size());
+        Map<TimeSlot, List<Integer>> timeSlotToIndexListMap = new HashMap<>(timeSlotList.size());
+        for (int i = 0; i < shiftAssignmentList.size(); i++) {
+            ShiftAssignment shiftAssignment = shiftAssignmentList.get(i);
+            shiftAssignment.setMovableIndex(-1);
+            updateMovableShiftAssignment(shiftAssignment);
+            timeSlotToIndexListMap.computeIfAbsent(shiftAssignment.getTimeSlot(), key -> new ArrayList<>()).add(i);
+        }
+        timeSlotToShiftAssignmentIndexesMap = new HashMap<>(timeSlotToIndexListMap.size());
+        timeSlotToIndexListMap.forEach((timeSlot, indexList) -> timeSlotToShiftAssignmentIndexesMap.put(timeSlot,
+                indexList.stream().mapToInt(Integer::intValue).toArray()));
     }
 
     public RosterParametrization getRosterParametrization() {
@@ -85,6 +107,53 @@ public class Roster {
         return shiftAssignmentList;
     }
 
+    /**
+     * @return never null, the {@link ShiftAssignment}s accepted by {@link MovableShiftAssignmentFilter}
+     */
+    public List<ShiftAssignment> getMovableShiftAssignmentList() {
+        return movableShiftAssignmentList;
+    }
+
+    /**
+     * @param timeSlot never null
+     * @return never null, the elements of {@link #getShiftAssignmentList()} in that {@link TimeSlot}
+     */
+    public List<ShiftAssignment> getShiftAssignmentList(TimeSlot timeSlot) {
+        int[] shiftAssignmentIndexes = timeSlotToShiftAssignmentIndexesMap.get(timeSlot);
+        if (shiftAssignmentIndexes == null) {
+            return Collections.emptyList();
+        }
+        List<ShiftAssignment> timeSlotShiftAssignmentList = new ArrayList<>(shiftAssignmentIndexes.length);
+        for (int shiftAssignmentIndex : shiftAssignmentIndexes) {
+            timeSlotShiftAssignmentList.add(shiftAssignmentList.get(shiftAssignmentIndex));
+        }
+        return timeSlotShiftAssignmentList;
+    }
+
+    /**
+     * Keeps {@link #getMovableShiftAssignmentList()} up to date in constant time.
+     * Removing swaps the last element into the gap, so the order of that list changes.
+     * Call this after changing {@link ShiftAssignment#isLockedByUser()}
+     * or the {@link TimeSlot#getTimeSlotState()} of its {@link ShiftAssignment#getTimeSlot()}.
+     * @param shiftAssignment never null, an element of {@link #getShiftAssignmentList()}
+     */
+    public void updateMovableShiftAssignment(ShiftAssignment shiftAssignment) {
+        boolean movable = MovableShiftAssignmentFilter.isMovable(shiftAssignment);
+        int movableIndex = shiftAssignment.getMovableIndex();
+        if (movable && movableIndex < 0) {
+            shiftAssignment.setMovableIndex(movableShiftAssignmentList.size());
+            movableShiftAssignmentList.add(shiftAssignment);
+        } else if (!movable && movableIndex >= 0) {
+            ShiftAssignment lastShiftAssignment = movableShiftAssignmentList.remove(
+                    movableShiftAssignmentList.size() - 1);
+            if (lastShiftAssignment != shiftAssignment) {
+                lastShiftAssignment.setMovableIndex(movableIndex);
+                movableShiftAssignmentList.set(movableIndex, lastShiftAssignment);
+            }
+            shiftAssignment.setMovableIndex(-1);
+        }
+    }
+
     public HardSoftScore getScore() {
         return score;
     }
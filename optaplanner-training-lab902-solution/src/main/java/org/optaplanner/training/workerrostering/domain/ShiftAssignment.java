@@ -18,9 +18,12 @@ package org.optaplanner.training.workerrostering.domain;
 
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
+import org.optaplanner.training.workerrostering.optional.domain.EmployeeStrengthWeightFactory;
 import org.optaplanner.training.workerrostering.optional.domain.MovableShiftAssignmentFilter;
+import org.optaplanner.training.workerrostering.optional.domain.ShiftAssignmentDifficultyWeightFactory;
 
-@PlanningEntity(movableEntitySelectionFilter = MovableShiftAssignmentFilter.class)
+@PlanningEntity(movableEntitySelectionFilter = MovableShiftAssignmentFilter.class,
+        difficultyWeightFactoryClass = ShiftAssignmentDifficultyWeightFactory.class)
 public class ShiftAssignment {
 
     private final Spot spot;
@@ -28,9 +31,13 @@ public class ShiftAssignment {
 
     private boolean lockedByUser = false;
 
-    @PlanningVariable(valueRangeProviderRefs = "employeeRange")
+    @PlanningVariable(valueRangeProviderRefs = "employeeRange",
+            strengthWeightFactoryClass = EmployeeStrengthWeightFactory.class)
     private Employee employee = null;
 
+    // Position in Roster.getMovableShiftAssignmentList(), -1 if pinned, only maintained by the Roster
+    private int movableIndex = -1;
+
     private ShiftAssignment() {
         spot = null;
         timeSlot = null;
@@ -65,6 +72,14 @@ public class ShiftAssignment {
         this.employee = employee;
     }
 
+    int getMovableIndex() {
+        return movableIndex;
+    }
+
+    void setMovableIndex(int movableIndex) {
+        this.movableIndex = movableIndex;
+    }
+
     @Override
     public String toString() {
         return spot + " " + timeSlot;
@@ -17,25 +17,62 @@
 package org.optaplanner.training.workerrostering.domain;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 public class TimeSlot {
 
-    private final LocalDateTime startDateTime;
-    private final LocalDateTime endDateTime;
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int index;
+    // Minutes since 1970-01-01T00:00, instead of LocalDateTime instances, to keep big rosters compact
+    // and to avoid allocations during score calculation
+    private final long startMinute;
+    private final long endMinute;
 
     private TimeSlotState timeSlotState;
 
-    public TimeSlot(LocalDateTime startDateTime, LocalDateTime endDateTime) {
-        this.startDateTime = startDateTime;
-        this.endDateTime = endDateTime;
+    /**
+     * @param index {@code >= 0}, the position of this time slot in {@link Roster#getTimeSlotList()}
+     * @param startDateTime never null
+     * @param endDateTime never null
+     */
+    public TimeSlot(int index, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        this.index = index;
+        this.startMinute = toMinute(startDateTime);
+        this.endMinute = toMinute(endDateTime);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getStartMinute() {
+        return startMinute;
+    }
+
+    public long getEndMinute() {
+        return endMinute;
     }
 
+    /**
+     * @return the number of days since 1970-01-01 of the start
+     */
+    public long getStartDay() {
+        return Math.floorDiv(startMinute, MINUTES_PER_DAY);
+    }
+
+    /**
+     * @return never null, a new instance on every call, so don't use this during score calculation
+     */
     public LocalDateTime getStartDateTime() {
-        return startDateTime;
+        return toLocalDateTime(startMinute);
     }
 
+    /**
+     * @return never null, a new instance on every call, so don't use this during score calculation
+     */
     public LocalDateTime getEndDateTime() {
-        return endDateTime;
+        return toLocalDateTime(endMinute);
     }
 
     public TimeSlotState getTimeSlotState() {
@@ -46,9 +83,18 @@ public class TimeSlot {
         this.timeSlotState = timeSlotState;
     }
 
+    private static long toMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60L;
+    }
+
+    private static LocalDateTime toLocalDateTime(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
     @Override
     public String toString() {
-        return startDateTime + "-" + endDateTime.toLocalTime();
+        LocalDateTime startDateTime = getStartDateTime();
+        return startDateTime + "-" + getEndDateTime().toLocalTime();
     }
 
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.domain;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link java.util.Set} of {@link TimeSlot}s that uses 1 bit per time slot of the roster,
+ * instead of a hash table entry per element.
+ * It relies on {@link TimeSlot#getIndex()}, so all elements must come from the same {@link Roster#getTimeSlotList()}.
+ */
+public class TimeSlotBitSet extends AbstractSet<TimeSlot> {
+
+    private final List<TimeSlot> timeSlotList;
+    private final BitSet bitSet;
+    private int size = 0;
+
+    /**
+     * @param timeSlotList never null, {@link Roster#getTimeSlotList()}
+     */
+    public TimeSlotBitSet(List<TimeSlot> timeSlotList) {
+        this.timeSlotList = timeSlotList;
+        bitSet = new BitSet(timeSlotList.size());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof TimeSlot)) {
+            return false;
+        }
+        return bitSet.get(((TimeSlot) o).getIndex());
+    }
+
+    @Override
+    public boolean add(TimeSlot timeSlot) {
+        int index = timeSlot.getIndex();
+        if (index >= timeSlotList.size() || timeSlotList.get(index) != timeSlot) {
+            throw new IllegalArgumentException("The timeSlot (" + timeSlot + ") with index (" + index
+                    + ") is not at that index in the timeSlotList of this set.");
+        }
+        if (bitSet.get(index)) {
+            return false;
+        }
+        bitSet.set(index);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) {
+            return false;
+        }
+        bitSet.clear(((TimeSlot) o).getIndex());
+        size--;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        bitSet.clear();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<TimeSlot> iterator() {
+        return new Iterator<TimeSlot>() {
+
+            private int nextIndex = bitSet.nextSetBit(0);
+            private int lastIndex = -1;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex >= 0;
+            }
+
+            @Override
+            public TimeSlot next() {
+                if (nextIndex < 0) {
+                    throw new NoSuchElementException();
+                }
+                lastIndex = nextIndex;
+                nextIndex = bitSet.nextSetBit(nextIndex + 1);
+                return timeSlotList.get(lastIndex);
+            }
+
+            @Override
+            public void remove() {
+                if (lastIndex < 0) {
+                    throw new IllegalStateException("The next() method has not been called yet.");
+                }
+                bitSet.clear(lastIndex);
+                size--;
+                lastIndex = -1;
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.benchmark;
+
+import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.persistence.WorkerRosteringGenerator;
+
+/**
+ * Measures the retained heap of a generated {@link Roster}, before solving starts.
+ * <p>
+ * Run it with a big enough {@code -Xmx}, for example
+ * {@code RosterMemoryFootprintApp 1000 365} for a year-long roster with 1000 spots.
+ */
+public class RosterMemoryFootprintApp {
+
+    public static void main(String[] args) {
+        int spotListSize = args.length > 0 ? Integer.parseInt(args[0]) : 80;
+        int dayListSize = args.length > 1 ? Integer.parseInt(args[1]) : 28 * 4;
+        long usedMemoryBefore = measureUsedMemory();
+        Roster roster = new WorkerRosteringGenerator().generateRoster(spotListSize, dayListSize * 3, false);
+        long usedMemoryAfter = measureUsedMemory();
+        long rosterMemory = usedMemoryAfter - usedMemoryBefore;
+        int shiftAssignmentListSize = roster.getShiftAssignmentList().size();
+        System.out.println("A roster with " + spotListSize + " spots and " + dayListSize + " days has "
+                + shiftAssignmentListSize + " shift assignments, " + roster.getEmployeeList().size() + " employees"
+                + " and " + roster.getTimeSlotList().size() + " time slots.");
+        System.out.println("It retains " + (rosterMemory / 1024L / 1024L) + " MB, which is "
+                + (rosterMemory / shiftAssignmentListSize) + " bytes per shift assignment.");
+    }
+
+    private static long measureUsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        // Multiple GC calls, because a single one doesn't guarantee that all garbage is collected
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
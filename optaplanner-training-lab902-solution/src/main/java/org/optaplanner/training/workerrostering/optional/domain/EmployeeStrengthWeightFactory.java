@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.domain;
+
+import java.util.Comparator;
+
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionSorterWeightFactory;
+import org.optaplanner.training.workerrostering.domain.Employee;
+import org.optaplanner.training.workerrostering.domain.Roster;
+
+public class EmployeeStrengthWeightFactory implements SelectionSorterWeightFactory<Roster, Employee> {
+
+    @Override
+    public EmployeeStrengthWeight createSorterWeight(Roster roster, Employee employee) {
+        // Called once per employee when the construction heuristic sorts them, not on every comparison.
+        int availableTimeSlotCount = roster.getTimeSlotList().size() - employee.getUnavailableTimeSlotSet().size();
+        return new EmployeeStrengthWeight(employee, employee.getSkillSet().size(), availableTimeSlotCount);
+    }
+
+    public static class EmployeeStrengthWeight implements Comparable<EmployeeStrengthWeight> {
+
+        // Employees with more skills and more available time slots can fill more shift assignments.
+        // They are higher (= stronger) so they are tried last, to keep them free for the scarce shifts.
+        private static final Comparator<EmployeeStrengthWeight> COMPARATOR = Comparator
+                .comparingInt((EmployeeStrengthWeight weight) -> weight.skillCount)
+                .thenComparingInt(weight -> weight.availableTimeSlotCount)
+                .thenComparing(weight -> weight.employee.getName());
+
+        private final Employee employee;
+        private final int skillCount;
+        private final int availableTimeSlotCount;
+
+        public EmployeeStrengthWeight(Employee employee, int skillCount, int availableTimeSlotCount) {
+            this.employee = employee;
+            this.skillCount = skillCount;
+            this.availableTimeSlotCount = availableTimeSlotCount;
+        }
+
+        public int getSkillCount() {
+            return skillCount;
+        }
+
+        public int getAvailableTimeSlotCount() {
+            return availableTimeSlotCount;
+        }
+
+        @Override
+        public int compareTo(EmployeeStrengthWeight other) {
+            return COMPARATOR.compare(this, other);
+        }
+
+    }
+
+}
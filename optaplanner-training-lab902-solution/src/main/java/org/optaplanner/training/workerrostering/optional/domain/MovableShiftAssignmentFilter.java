@@ -24,10 +24,14 @@ import org.optaplanner.training.workerrostering.domain.TimeSlotState;
 
 public class MovableShiftAssignmentFilter implements SelectionFilter<Roster, ShiftAssignment> {
 
-    @Override
-    public boolean accept(ScoreDirector<Roster> scoreDirector, ShiftAssignment shiftAssignment) {
+    public static boolean isMovable(ShiftAssignment shiftAssignment) {
         return !shiftAssignment.isLockedByUser()
                 && shiftAssignment.getTimeSlot().getTimeSlotState() != TimeSlotState.HISTORY;
     }
 
+    @Override
+    public boolean accept(ScoreDirector<Roster> scoreDirector, ShiftAssignment shiftAssignment) {
+        return isMovable(shiftAssignment);
+    }
+
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.domain;
+
+import java.util.Comparator;
+
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionSorterWeightFactory;
+import org.optaplanner.training.workerrostering.domain.Employee;
+import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+import org.optaplanner.training.workerrostering.domain.Skill;
+import org.optaplanner.training.workerrostering.domain.TimeSlot;
+
+public class ShiftAssignmentDifficultyWeightFactory implements SelectionSorterWeightFactory<Roster, ShiftAssignment> {
+
+    @Override
+    public ShiftAssignmentDifficultyWeight createSorterWeight(Roster roster, ShiftAssignment shiftAssignment) {
+        // Called once per shift assignment when the construction heuristic sorts them, not on every comparison.
+        Skill requiredSkill = shiftAssignment.getSpot().getRequiredSkill();
+        TimeSlot timeSlot = shiftAssignment.getTimeSlot();
+        int eligibleEmployeeCount = 0;
+        for (Employee employee : roster.getEmployeeList()) {
+            if (employee.getSkillSet().contains(requiredSkill)
+                    && !employee.getUnavailableTimeSlotSet().contains(timeSlot)) {
+                eligibleEmployeeCount++;
+            }
+        }
+        return new ShiftAssignmentDifficultyWeight(shiftAssignment, eligibleEmployeeCount);
+    }
+
+    public static class ShiftAssignmentDifficultyWeight implements Comparable<ShiftAssignmentDifficultyWeight> {
+
+        // Assign the roster chronologically, so the rest and one shift per day constraints see the earlier shifts.
+        // Within a time slot, assign shift assignments with fewer eligible employees first,
+        // to avoid dead ends on scarce skills.
+        // They are higher (= more difficult) so they are assigned first.
+        private static final Comparator<ShiftAssignmentDifficultyWeight> COMPARATOR = Comparator
+                .comparingLong((ShiftAssignmentDifficultyWeight weight)
+                        -> -weight.shiftAssignment.getTimeSlot().getStartMinute())
+                .thenComparingInt(weight -> -weight.eligibleEmployeeCount)
+                .thenComparing(weight -> weight.shiftAssignment.getSpot().getName());
+
+        private final ShiftAssignment shiftAssignment;
+        private final int eligibleEmployeeCount;
+
+        public ShiftAssignmentDifficultyWeight(ShiftAssignment shiftAssignment, int eligibleEmployeeCount) {
+            this.shiftAssignment = shiftAssignment;
+            this.eligibleEmployeeCount = eligibleEmployeeCount;
+        }
+
+        public int getEligibleEmployeeCount() {
+            return eligibleEmployeeCount;
+        }
+
+        @Override
+        public int compareTo(ShiftAssignmentDifficultyWeight other) {
+            return COMPARATOR.compare(this, other);
+        }
+
+    }
+
+}
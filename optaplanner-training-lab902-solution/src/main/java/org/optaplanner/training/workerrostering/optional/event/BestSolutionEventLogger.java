@@ -0,0 +1,324 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.event;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+import org.optaplanner.core.api.solver.event.SolverEventListener;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.core.impl.score.director.ScoreDirectorFactory;
+import org.optaplanner.training.workerrostering.domain.Employee;
+import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+
+/**
+ * Appends every new best solution to a JSON lines file, one JSON object per line.
+ * <p>
+ * The solver thread only wraps the timestamp, the score and the new best solution
+ * in a {@link BestSolutionEventRecord} and publishes it to a bounded single producer, single consumer ring buffer,
+ * which is lock-free: it only reads and advances 2 {@link AtomicLong} sequences.
+ * A background writer thread compares the employees with those of the previous best solution,
+ * calculates the constraint match totals with its own {@link ScoreDirector} and appends the line,
+ * so a slow disk or a big roster doesn't stall the search.
+ * If the ring buffer is full, the record is superseded by the next one instead of blocking the solver thread.
+ * Every waiting record keeps its planning clone in memory, so the capacity is small.
+ * <p>
+ * If writing fails, the next best solution event throws the failure.
+ * Close it after solving, to flush the remaining records.
+ */
+public class BestSolutionEventLogger implements SolverEventListener<Roster>, AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private static final long CLOSE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    private final ScoreDirectorFactory<Roster> scoreDirectorFactory;
+    private final File outputFile;
+
+    private final BestSolutionEventRecord[] recordRing;
+    // The sequence of the next record to publish, only advanced by the solver thread
+    private final AtomicLong publishSequence = new AtomicLong(0L);
+    // The sequence of the next record to write, only advanced by the writer thread
+    private final AtomicLong writeSequence = new AtomicLong(0L);
+    private final Thread writerThread;
+    private volatile boolean closed = false;
+    private volatile RuntimeException writerException = null;
+
+    // Only used by the solver thread, and by close() after solving
+    private BestSolutionEventRecord unpublishedRecord = null;
+
+    // Only used by the writer thread
+    private Employee[] previousEmployees = null;
+
+    /**
+     * @param scoreDirectorFactory never null, usually {@code solver.getScoreDirectorFactory()}
+     * @param outputFile never null, appended to if it already exists
+     */
+    public BestSolutionEventLogger(ScoreDirectorFactory<Roster> scoreDirectorFactory, File outputFile) {
+        this(scoreDirectorFactory, outputFile, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param scoreDirectorFactory never null, usually {@code solver.getScoreDirectorFactory()}
+     * @param outputFile never null, appended to if it already exists
+     * @param queueCapacity {@code > 0}, the number of records that can wait for the writer thread
+     */
+    public BestSolutionEventLogger(ScoreDirectorFactory<Roster> scoreDirectorFactory, File outputFile,
+            int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("The queueCapacity (" + queueCapacity + ") must be positive.");
+        }
+        this.scoreDirectorFactory = scoreDirectorFactory;
+        this.outputFile = outputFile;
+        recordRing = new BestSolutionEventRecord[queueCapacity];
+        writerThread = new Thread(this::writeRecords, "BestSolutionEventLogger");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void bestSolutionChanged(BestSolutionChangedEvent<Roster> event) {
+        if (closed) {
+            throw new IllegalStateException("The eventLogger for outputFile (" + outputFile
+                    + ") is already closed.");
+        }
+        RuntimeException writerException = this.writerException;
+        if (writerException != null) {
+            throw new IllegalStateException("The eventLogger for outputFile (" + outputFile
+                    + ") can't log the best solution, because writing an earlier one failed.", writerException);
+        }
+        BestSolutionEventRecord record = new BestSolutionEventRecord(System.currentTimeMillis(),
+                event.getTimeMillisSpent(), (HardSoftScore) event.getNewBestScore(), event.getNewBestSolution(),
+                unpublishedRecord == null ? 0 : unpublishedRecord.getMergedEventCount() + 1);
+        if (publish(record)) {
+            unpublishedRecord = null;
+            LockSupport.unpark(writerThread);
+        } else {
+            // The writer thread can't keep up: the next record supersedes this one
+            unpublishedRecord = record;
+        }
+    }
+
+    /**
+     * Only called by the solver thread, and by close() after solving.
+     * @param record never null
+     * @return false if the ring buffer is full
+     */
+    private boolean publish(BestSolutionEventRecord record) {
+        long sequence = publishSequence.get();
+        if (sequence - writeSequence.get() >= recordRing.length) {
+            return false;
+        }
+        recordRing[(int) (sequence % recordRing.length)] = record;
+        // Ordered after the slot write, so the writer thread sees the record once it sees the sequence
+        publishSequence.lazySet(sequence + 1L);
+        return true;
+    }
+
+    /**
+     * Only called by the writer thread.
+     * @return null if the ring buffer is empty
+     */
+    private BestSolutionEventRecord poll() {
+        long sequence = writeSequence.get();
+        if (sequence >= publishSequence.get()) {
+            return null;
+        }
+        int index = (int) (sequence % recordRing.length);
+        BestSolutionEventRecord record = recordRing[index];
+        // Don't keep the planning clone in memory until the slot is reused
+        recordRing[index] = null;
+        writeSequence.lazySet(sequence + 1L);
+        return record;
+    }
+
+    /**
+     * Blocks until every record published so far has been written,
+     * including the last one if it didn't fit in the ring buffer.
+     */
+    @Override
+    public void close() {
+        try {
+            while (unpublishedRecord != null && writerThread.isAlive()) {
+                if (publish(unpublishedRecord)) {
+                    unpublishedRecord = null;
+                } else {
+                    // The writer thread is still emptying the ring buffer
+                    LockSupport.unpark(writerThread);
+                    LockSupport.parkNanos(this, CLOSE_PARK_NANOS);
+                }
+            }
+            unpublishedRecord = null;
+            closed = true;
+            LockSupport.unpark(writerThread);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing the eventLogger for outputFile ("
+                    + outputFile + ").", e);
+        }
+        if (writerException != null) {
+            throw writerException;
+        }
+    }
+
+    private void writeRecords() {
+        ScoreDirector<Roster> scoreDirector = scoreDirectorFactory.buildScoreDirector();
+        try (BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (true) {
+                BestSolutionEventRecord record = poll();
+                if (record != null) {
+                    writeRecord(writer, scoreDirector, record);
+                } else if (closed) {
+                    // Reading closed first guarantees the last published sequence is visible
+                    if (writeSequence.get() >= publishSequence.get()) {
+                        break;
+                    }
+                } else {
+                    // Flush while idle, so the file can be tailed during solving
+                    writer.flush();
+                    LockSupport.park(this);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            writerException = new IllegalStateException("Failed writing outputFile (" + outputFile + ").", e);
+        } finally {
+            scoreDirector.dispose();
+        }
+    }
+
+    private void writeRecord(Writer writer, ScoreDirector<Roster> scoreDirector, BestSolutionEventRecord record)
+            throws IOException {
+        HardSoftScore score = record.getScore();
+        Roster roster = record.getRoster();
+        StringBuilder line = new StringBuilder(512);
+        line.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(record.getTimestamp())).append("\"");
+        line.append(",\"timeMillisSpent\":").append(record.getTimeMillisSpent());
+        line.append(",\"score\":\"").append(score).append("\"");
+        line.append(",\"initScore\":").append(score.getInitScore());
+        line.append(",\"hardScore\":").append(score.getHardScore());
+        line.append(",\"softScore\":").append(score.getSoftScore());
+        line.append(",\"mergedEventCount\":").append(record.getMergedEventCount());
+        appendChangedShiftAssignments(line, roster);
+        line.append(",\"constraintMatchTotals\":[");
+        // Partially initialized solutions of the construction heuristic don't get constraint match totals
+        if (score.isSolutionInitialized()) {
+            scoreDirector.setWorkingSolution(roster);
+            scoreDirector.calculateScore();
+            if (scoreDirector.isConstraintMatchEnabled()) {
+                List<ConstraintMatchTotal> constraintMatchTotalList
+                        = new ArrayList<>(scoreDirector.getConstraintMatchTotals());
+                constraintMatchTotalList.sort(null);
+                boolean first = true;
+                for (ConstraintMatchTotal constraintMatchTotal : constraintMatchTotalList) {
+                    if (!first) {
+                        line.append(",");
+                    }
+                    line.append("{\"constraintName\":\"")
+                            .append(escapeJson(constraintMatchTotal.getConstraintName()))
+                            .append("\",\"scoreLevel\":").append(constraintMatchTotal.getScoreLevel())
+                            .append(",\"constraintMatchCount\":").append(constraintMatchTotal.getConstraintMatchCount())
+                            .append(",\"weightTotal\":").append(constraintMatchTotal.getWeightTotalAsNumber())
+                            .append("}");
+                    first = false;
+                }
+            }
+        }
+        line.append("]}\n");
+        writer.write(line.toString());
+    }
+
+    /**
+     * The planning clones of a solve share their problem facts,
+     * so an {@link Employee} can be compared by reference with the one in the previous written best solution.
+     * The first best solution is compared with an empty roster.
+     * A {@link ShiftAssignment} is identified by its index in {@link Roster#getShiftAssignmentList()},
+     * which is the same in every planning clone.
+     * @param line never null
+     * @param roster never null
+     */
+    private void appendChangedShiftAssignments(StringBuilder line, Roster roster) {
+        List<ShiftAssignment> shiftAssignmentList = roster.getShiftAssignmentList();
+        int size = shiftAssignmentList.size();
+        if (previousEmployees == null || previousEmployees.length != size) {
+            previousEmployees = new Employee[size];
+        }
+        StringBuilder indexes = new StringBuilder();
+        int changedShiftAssignmentCount = 0;
+        for (int i = 0; i < size; i++) {
+            Employee employee = shiftAssignmentList.get(i).getEmployee();
+            if (employee != previousEmployees[i]) {
+                previousEmployees[i] = employee;
+                if (changedShiftAssignmentCount > 0) {
+                    indexes.append(",");
+                }
+                indexes.append(i);
+                changedShiftAssignmentCount++;
+            }
+        }
+        line.append(",\"changedShiftAssignmentCount\":").append(changedShiftAssignmentCount);
+        line.append(",\"changedShiftAssignmentIndexes\":[").append(indexes).append("]");
+    }
+
+    private static String escapeJson(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    escaped.append("\\\"");
+                    break;
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+
+}
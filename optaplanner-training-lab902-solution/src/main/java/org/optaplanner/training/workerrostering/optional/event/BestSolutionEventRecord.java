@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.event;
+
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+import org.optaplanner.training.workerrostering.domain.Roster;
+
+/**
+ * Created on the solver thread, so it only holds what the {@link BestSolutionChangedEvent} already has:
+ * the times, the score and the {@link Roster} planning clone of the new best solution.
+ * The solver never changes that planning clone, so the writer thread can read it later.
+ */
+public class BestSolutionEventRecord {
+
+    private final long timestamp;
+    private final long timeMillisSpent;
+    private final HardSoftScore score;
+    private final Roster roster;
+    private final int mergedEventCount;
+
+    public BestSolutionEventRecord(long timestamp, long timeMillisSpent, HardSoftScore score, Roster roster,
+            int mergedEventCount) {
+        this.timestamp = timestamp;
+        this.timeMillisSpent = timeMillisSpent;
+        this.score = score;
+        this.roster = roster;
+        this.mergedEventCount = mergedEventCount;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTimeMillisSpent() {
+        return timeMillisSpent;
+    }
+
+    public HardSoftScore getScore() {
+        return score;
+    }
+
+    public Roster getRoster() {
+        return roster;
+    }
+
+    /**
+     * @return {@code >= 0}, the number of earlier best solutions that didn't fit in the queue
+     * and are superseded by this record
+     */
+    public int getMergedEventCount() {
+        return mergedEventCount;
+    }
+
+    @Override
+    public String toString() {
+        return timeMillisSpent + "ms " + score;
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.realtime;
+
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.core.impl.solver.ProblemFactChange;
+import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+import org.optaplanner.training.workerrostering.domain.Spot;
+import org.optaplanner.training.workerrostering.domain.TimeSlot;
+
+/**
+ * Locks or unlocks a {@link ShiftAssignment} while solving
+ * and keeps {@link Roster#getMovableShiftAssignmentList()} up to date.
+ */
+public class ShiftAssignmentLockedByUserChange implements ProblemFactChange<Roster> {
+
+    private final Spot spot;
+    private final TimeSlot timeSlot;
+    private final boolean lockedByUser;
+
+    public ShiftAssignmentLockedByUserChange(ShiftAssignment shiftAssignment, boolean lockedByUser) {
+        // Problem facts aren't planning cloned, so they identify the working ShiftAssignment
+        this.spot = shiftAssignment.getSpot();
+        this.timeSlot = shiftAssignment.getTimeSlot();
+        this.lockedByUser = lockedByUser;
+    }
+
+    @Override
+    public void doChange(ScoreDirector<Roster> scoreDirector) {
+        Roster roster = scoreDirector.getWorkingSolution();
+        ShiftAssignment workingShiftAssignment = roster.getShiftAssignmentList(timeSlot).stream()
+                .filter(shiftAssignment -> shiftAssignment.getSpot() == spot)
+                .findFirst().orElseThrow(() -> new IllegalStateException(
+                        "The working solution has no shiftAssignment for spot (" + spot
+                        + ") and timeSlot (" + timeSlot + ")."));
+        scoreDirector.beforeProblemPropertyChanged(workingShiftAssignment);
+        workingShiftAssignment.setLockedByUser(lockedByUser);
+        scoreDirector.afterProblemPropertyChanged(workingShiftAssignment);
+        roster.updateMovableShiftAssignment(workingShiftAssignment);
+        scoreDirector.triggerVariableListeners();
+    }
+
+}
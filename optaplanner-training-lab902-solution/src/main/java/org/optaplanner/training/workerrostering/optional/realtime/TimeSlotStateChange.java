@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.realtime;
+
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.core.impl.solver.ProblemFactChange;
+import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+import org.optaplanner.training.workerrostering.domain.TimeSlot;
+import org.optaplanner.training.workerrostering.domain.TimeSlotState;
+
+/**
+ * Changes the {@link TimeSlotState} of a {@link TimeSlot} while solving, for example to move it into HISTORY,
+ * and keeps {@link Roster#getMovableShiftAssignmentList()} up to date.
+ */
+public class TimeSlotStateChange implements ProblemFactChange<Roster> {
+
+    private final TimeSlot timeSlot;
+    private final TimeSlotState timeSlotState;
+
+    public TimeSlotStateChange(TimeSlot timeSlot, TimeSlotState timeSlotState) {
+        this.timeSlot = timeSlot;
+        this.timeSlotState = timeSlotState;
+    }
+
+    @Override
+    public void doChange(ScoreDirector<Roster> scoreDirector) {
+        Roster roster = scoreDirector.getWorkingSolution();
+        // Problem facts aren't planning cloned, so the working solution shares the same TimeSlot instance
+        scoreDirector.beforeProblemPropertyChanged(timeSlot);
+        timeSlot.setTimeSlotState(timeSlotState);
+        scoreDirector.afterProblemPropertyChanged(timeSlot);
+        for (ShiftAssignment shiftAssignment : roster.getShiftAssignmentList(timeSlot)) {
+            roster.updateMovableShiftAssignment(shiftAssignment);
+        }
+        scoreDirector.triggerVariableListeners();
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.optaplanner.training.workerrostering.domain.Employee;
+import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+import org.optaplanner.training.workerrostering.domain.TimeSlot;
+
+/**
+ * Caches the hard score of every employee-day, for the hard constraints of workerRosteringScoreRules.drl:
+ * required skill, unavailable time slots, at most one shift assignment per day and 10 hours of rest.
+ * <p>
+ * The hard score of an employee-day only depends on the shift assignments of that employee
+ * on that day and on the {@link #getNeighbourDayCount() neighbour days} around it.
+ * So an inserted or retracted shift assignment only invalidates those employee-days,
+ * which are recalculated lazily by {@link #getHardScore()}.
+ * That keeps the cost of a move independent of the length of the roster horizon.
+ * <p>
+ * A rest violation between 2 shift assignments is attributed to the day of the one that ends last.
+ */
+public class EmployeeDayHardScoreCache {
+
+    public static final int REQUIRED_SKILL_WEIGHT = -100;
+    public static final int UNAVAILABLE_TIME_SLOT_WEIGHT = -50;
+    public static final int ONE_SHIFT_PER_DAY_WEIGHT = -10;
+    public static final int REST_WEIGHT = -1;
+
+    public static final int REST_MINUTES = 10 * 60;
+
+    private final Map<Employee, Integer> employeeIndexMap;
+    private final long firstDay;
+    private final int dayCount;
+    private final int neighbourDayCount;
+
+    // Indexed by employeeIndex * dayCount + dayIndex
+    // A null element is an employee-day without shift assignments
+    private final List<List<ShiftAssignment>> shiftAssignmentLists;
+    private final int[] hardScores;
+    private final boolean[] dirties;
+
+    private int[] dirtyCellQueue = new int[64];
+    private int dirtyCellQueueSize = 0;
+    private int hardScore = 0;
+
+    public EmployeeDayHardScoreCache(Roster roster) {
+        List<Employee> employeeList = roster.getEmployeeList();
+        employeeIndexMap = new HashMap<>(employeeList.size());
+        for (int i = 0; i < employeeList.size(); i++) {
+            employeeIndexMap.put(employeeList.get(i), i);
+        }
+        long minimumDay = Long.MAX_VALUE;
+        long maximumDay = Long.MIN_VALUE;
+        long maximumDuration = 0L;
+        for (TimeSlot timeSlot : roster.getTimeSlotList()) {
+            minimumDay = Math.min(minimumDay, timeSlot.getStartDay());
+            maximumDay = Math.max(maximumDay, timeSlot.getStartDay());
+            maximumDuration = Math.max(maximumDuration, timeSlot.getEndMinute() - timeSlot.getStartMinute());
+        }
+        if (minimumDay > maximumDay) {
+            minimumDay = 0L;
+            maximumDay = 0L;
+        }
+        firstDay = minimumDay;
+        dayCount = (int) (maximumDay - minimumDay + 1L);
+        // A shift assignment that ends within 10 hours before another one starts
+        // starts at most (REST_MINUTES + maximumDuration) earlier
+        neighbourDayCount = (int) ((REST_MINUTES + maximumDuration + TimeSlot.MINUTES_PER_DAY - 1L)
+                / TimeSlot.MINUTES_PER_DAY);
+        int cellCount = employeeList.size() * dayCount;
+        shiftAssignmentLists = new ArrayList<>(Collections.nCopies(cellCount, null));
+        hardScores = new int[cellCount];
+        dirties = new boolean[cellCount];
+    }
+
+    /**
+     * @return {@code >= 0}, the number of days before and after an employee-day
+     * that can influence its hard score
+     */
+    public int getNeighbourDayCount() {
+        return neighbourDayCount;
+    }
+
+    /**
+     * @param shiftAssignment never null, ignored if it has no employee
+     */
+    public void insert(ShiftAssignment shiftAssignment) {
+        Employee employee = shiftAssignment.getEmployee();
+        if (employee == null) {
+            return;
+        }
+        int employeeIndex = getEmployeeIndex(employee);
+        int dayIndex = getDayIndex(shiftAssignment.getTimeSlot());
+        int cell = employeeIndex * dayCount + dayIndex;
+        List<ShiftAssignment> shiftAssignmentList = shiftAssignmentLists.get(cell);
+        if (shiftAssignmentList == null) {
+            shiftAssignmentList = new ArrayList<>(2);
+            shiftAssignmentLists.set(cell, shiftAssignmentList);
+        }
+        shiftAssignmentList.add(shiftAssignment);
+        invalidate(employeeIndex, dayIndex);
+    }
+
+    /**
+     * @param shiftAssignment never null, ignored if it has no employee
+     */
+    public void retract(ShiftAssignment shiftAssignment) {
+        Employee employee = shiftAssignment.getEmployee();
+        if (employee == null) {
+            return;
+        }
+        int employeeIndex = getEmployeeIndex(employee);
+        int dayIndex = getDayIndex(shiftAssignment.getTimeSlot());
+        List<ShiftAssignment> shiftAssignmentList = shiftAssignmentLists.get(employeeIndex * dayCount + dayIndex);
+        if (shiftAssignmentList == null || !shiftAssignmentList.remove(shiftAssignment)) {
+            throw new IllegalStateException("The shiftAssignment (" + shiftAssignment
+                    + ") with employee (" + employee + ") was never inserted.");
+        }
+        invalidate(employeeIndex, dayIndex);
+    }
+
+    /**
+     * Recalculates the invalidated employee-days.
+     * @return {@code <= 0}, the sum of the hard score of every employee-day
+     */
+    public int getHardScore() {
+        for (int i = 0; i < dirtyCellQueueSize; i++) {
+            int cell = dirtyCellQueue[i];
+            int cellHardScore = calculateHardScore(cell / dayCount, cell % dayCount);
+            hardScore += cellHardScore - hardScores[cell];
+            hardScores[cell] = cellHardScore;
+            dirties[cell] = false;
+        }
+        dirtyCellQueueSize = 0;
+        return hardScore;
+    }
+
+    private int getEmployeeIndex(Employee employee) {
+        Integer employeeIndex = employeeIndexMap.get(employee);
+        if (employeeIndex == null) {
+            throw new IllegalStateException("The employee (" + employee
+                    + ") is not in the employeeList of the roster.");
+        }
+        return employeeIndex;
+    }
+
+    private int getDayIndex(TimeSlot timeSlot) {
+        return (int) (timeSlot.getStartDay() - firstDay);
+    }
+
+    private void invalidate(int employeeIndex, int dayIndex) {
+        int fromDayIndex = Math.max(0, dayIndex - neighbourDayCount);
+        int toDayIndex = Math.min(dayCount - 1, dayIndex + neighbourDayCount);
+        int employeeCell = employeeIndex * dayCount;
+        for (int i = fromDayIndex; i <= toDayIndex; i++) {
+            int cell = employeeCell + i;
+            if (!dirties[cell]) {
+                dirties[cell] = true;
+                if (dirtyCellQueueSize == dirtyCellQueue.length) {
+                    dirtyCellQueue = Arrays.copyOf(dirtyCellQueue, dirtyCellQueue.length * 2);
+                }
+                dirtyCellQueue[dirtyCellQueueSize++] = cell;
+            }
+        }
+    }
+
+    private int calculateHardScore(int employeeIndex, int dayIndex) {
+        int employeeCell = employeeIndex * dayCount;
+        List<ShiftAssignment> shiftAssignmentList = shiftAssignmentLists.get(employeeCell + dayIndex);
+        if (shiftAssignmentList == null || shiftAssignmentList.isEmpty()) {
+            return 0;
+        }
+        int size = shiftAssignmentList.size();
+        // Every ordered pair matches, just like in the DRL
+        int cellHardScore = ONE_SHIFT_PER_DAY_WEIGHT * size * (size - 1);
+        int fromDayIndex = Math.max(0, dayIndex - neighbourDayCount);
+        int toDayIndex = Math.min(dayCount - 1, dayIndex + neighbourDayCount);
+        for (ShiftAssignment shiftAssignment : shiftAssignmentList) {
+            Employee employee = shiftAssignment.getEmployee();
+            TimeSlot timeSlot = shiftAssignment.getTimeSlot();
+            if (!employee.getSkillSet().contains(shiftAssignment.getSpot().getRequiredSkill())) {
+                cellHardScore += REQUIRED_SKILL_WEIGHT;
+            }
+            if (employee.getUnavailableTimeSlotSet().contains(timeSlot)) {
+                cellHardScore += UNAVAILABLE_TIME_SLOT_WEIGHT;
+            }
+            long startMinute = timeSlot.getStartMinute();
+            long endMinute = timeSlot.getEndMinute();
+            for (int i = fromDayIndex; i <= toDayIndex; i++) {
+                List<ShiftAssignment> otherList = shiftAssignmentLists.get(employeeCell + i);
+                if (otherList == null) {
+                    continue;
+                }
+                for (ShiftAssignment other : otherList) {
+                    long otherEndMinute = other.getTimeSlot().getEndMinute();
+                    if (other != shiftAssignment && otherEndMinute <= endMinute
+                            && startMinute - otherEndMinute < REST_MINUTES) {
+                        cellHardScore += REST_WEIGHT;
+                    }
+                }
+            }
+        }
+        return cellHardScore;
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.solver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.impl.score.director.incremental.IncrementalScoreCalculator;
+import org.optaplanner.training.workerrostering.domain.Employee;
+import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+import org.optaplanner.training.workerrostering.domain.Spot;
+
+/**
+ * Java alternative for workerRosteringScoreRules.drl, with the same score.
+ * The hard constraints are delegated to an {@link EmployeeDayHardScoreCache}.
+ */
+public class WorkerRosteringIncrementalScoreCalculator implements IncrementalScoreCalculator<Roster> {
+
+    private EmployeeDayHardScoreCache employeeDayHardScoreCache;
+
+    private Map<Employee, Integer> employeeIndexMap;
+    private Map<Spot, Integer> spotIndexMap;
+    private int[] employeeShiftCounts;
+    // Indexed by spotIndex * employeeCount + employeeIndex
+    private int[] spotEmployeeShiftCounts;
+    private int softScore;
+
+    @Override
+    public void resetWorkingSolution(Roster roster) {
+        employeeDayHardScoreCache = new EmployeeDayHardScoreCache(roster);
+        List<Employee> employeeList = roster.getEmployeeList();
+        employeeIndexMap = new HashMap<>(employeeList.size());
+        for (int i = 0; i < employeeList.size(); i++) {
+            employeeIndexMap.put(employeeList.get(i), i);
+        }
+        List<Spot> spotList = roster.getSpotList();
+        spotIndexMap = new HashMap<>(spotList.size());
+        for (int i = 0; i < spotList.size(); i++) {
+            spotIndexMap.put(spotList.get(i), i);
+        }
+        employeeShiftCounts = new int[employeeList.size()];
+        spotEmployeeShiftCounts = new int[spotList.size() * employeeList.size()];
+        softScore = 0;
+        for (ShiftAssignment shiftAssignment : roster.getShiftAssignmentList()) {
+            insert(shiftAssignment);
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(Object entity) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(Object entity) {
+        insert((ShiftAssignment) entity);
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+        retract((ShiftAssignment) entity);
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+        insert((ShiftAssignment) entity);
+    }
+
+    @Override
+    public void beforeEntityRemoved(Object entity) {
+        retract((ShiftAssignment) entity);
+    }
+
+    @Override
+    public void afterEntityRemoved(Object entity) {
+        // Do nothing
+    }
+
+    private void insert(ShiftAssignment shiftAssignment) {
+        Employee employee = shiftAssignment.getEmployee();
+        if (employee == null) {
+            return;
+        }
+        employeeDayHardScoreCache.insert(shiftAssignment);
+        int employeeIndex = employeeIndexMap.get(employee);
+        int spotEmployeeIndex = spotIndexMap.get(shiftAssignment.getSpot()) * employeeShiftCounts.length
+                + employeeIndex;
+        // Fairness: - (count + 1)^2 + count^2 = - (2 * count + 1)
+        softScore -= 2 * employeeShiftCounts[employeeIndex] + 1;
+        employeeShiftCounts[employeeIndex]++;
+        // Affinity: (count + 1)^2 - count^2 = 2 * count + 1
+        softScore += 2 * spotEmployeeShiftCounts[spotEmployeeIndex] + 1;
+        spotEmployeeShiftCounts[spotEmployeeIndex]++;
+    }
+
+    private void retract(ShiftAssignment shiftAssignment) {
+        Employee employee = shiftAssignment.getEmployee();
+        if (employee == null) {
+            return;
+        }
+        employeeDayHardScoreCache.retract(shiftAssignment);
+        int employeeIndex = employeeIndexMap.get(employee);
+        int spotEmployeeIndex = spotIndexMap.get(shiftAssignment.getSpot()) * employeeShiftCounts.length
+                + employeeIndex;
+        employeeShiftCounts[employeeIndex]--;
+        softScore += 2 * employeeShiftCounts[employeeIndex] + 1;
+        spotEmployeeShiftCounts[spotEmployeeIndex]--;
+        softScore -= 2 * spotEmployeeShiftCounts[spotEmployeeIndex] + 1;
+    }
+
+    @Override
+    public Score calculateScore(int initScore) {
+        return HardSoftScore.valueOf(initScore, employeeDayHardScoreCache.getHardScore(), softScore);
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.solver.move;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+
+import org.optaplanner.core.impl.heuristic.move.AbstractMove;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.training.workerrostering.domain.Employee;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+
+public class ShiftAssignmentChangeMove extends AbstractMove {
+
+    private final ShiftAssignment shiftAssignment;
+    private final Employee toEmployee;
+
+    public ShiftAssignmentChangeMove(ShiftAssignment shiftAssignment, Employee toEmployee) {
+        this.shiftAssignment = shiftAssignment;
+        this.toEmployee = toEmployee;
+    }
+
+    public ShiftAssignment getShiftAssignment() {
+        return shiftAssignment;
+    }
+
+    public Employee getToEmployee() {
+        return toEmployee;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector scoreDirector) {
+        return shiftAssignment.getEmployee() != toEmployee;
+    }
+
+    @Override
+    public ShiftAssignmentChangeMove createUndoMove(ScoreDirector scoreDirector) {
+        return new ShiftAssignmentChangeMove(shiftAssignment, shiftAssignment.getEmployee());
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector scoreDirector) {
+        scoreDirector.beforeVariableChanged(shiftAssignment, "employee");
+        shiftAssignment.setEmployee(toEmployee);
+        scoreDirector.afterVariableChanged(shiftAssignment, "employee");
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningEntities() {
+        return Collections.singletonList(shiftAssignment);
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningValues() {
+        return Collections.singletonList(toEmployee);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o instanceof ShiftAssignmentChangeMove) {
+            ShiftAssignmentChangeMove other = (ShiftAssignmentChangeMove) o;
+            return shiftAssignment == other.shiftAssignment
+                    && toEmployee == other.toEmployee;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(shiftAssignment, toEmployee);
+    }
+
+    @Override
+    public String toString() {
+        return shiftAssignment + " {" + shiftAssignment.getEmployee() + " -> " + toEmployee + "}";
+    }
+
+}
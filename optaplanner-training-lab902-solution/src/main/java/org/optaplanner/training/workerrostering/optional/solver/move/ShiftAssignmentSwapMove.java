@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.solver.move;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+import org.optaplanner.core.impl.heuristic.move.AbstractMove;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.training.workerrostering.domain.Employee;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+
+public class ShiftAssignmentSwapMove extends AbstractMove {
+
+    private final ShiftAssignment leftShiftAssignment;
+    private final ShiftAssignment rightShiftAssignment;
+
+    public ShiftAssignmentSwapMove(ShiftAssignment leftShiftAssignment, ShiftAssignment rightShiftAssignment) {
+        this.leftShiftAssignment = leftShiftAssignment;
+        this.rightShiftAssignment = rightShiftAssignment;
+    }
+
+    public ShiftAssignment getLeftShiftAssignment() {
+        return leftShiftAssignment;
+    }
+
+    public ShiftAssignment getRightShiftAssignment() {
+        return rightShiftAssignment;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector scoreDirector) {
+        return leftShiftAssignment.getEmployee() != rightShiftAssignment.getEmployee();
+    }
+
+    @Override
+    public ShiftAssignmentSwapMove createUndoMove(ScoreDirector scoreDirector) {
+        return new ShiftAssignmentSwapMove(rightShiftAssignment, leftShiftAssignment);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector scoreDirector) {
+        Employee leftEmployee = leftShiftAssignment.getEmployee();
+        Employee rightEmployee = rightShiftAssignment.getEmployee();
+        scoreDirector.beforeVariableChanged(leftShiftAssignment, "employee");
+        leftShiftAssignment.setEmployee(rightEmployee);
+        scoreDirector.afterVariableChanged(leftShiftAssignment, "employee");
+        scoreDirector.beforeVariableChanged(rightShiftAssignment, "employee");
+        rightShiftAssignment.setEmployee(leftEmployee);
+        scoreDirector.afterVariableChanged(rightShiftAssignment, "employee");
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningEntities() {
+        return Arrays.asList(leftShiftAssignment, rightShiftAssignment);
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningValues() {
+        return Arrays.asList(leftShiftAssignment.getEmployee(), rightShiftAssignment.getEmployee());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o instanceof ShiftAssignmentSwapMove) {
+            ShiftAssignmentSwapMove other = (ShiftAssignmentSwapMove) o;
+            return leftShiftAssignment == other.leftShiftAssignment
+                    && rightShiftAssignment == other.rightShiftAssignment;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(leftShiftAssignment, rightShiftAssignment);
+    }
+
+    @Override
+    public String toString() {
+        return leftShiftAssignment + " {" + leftShiftAssignment.getEmployee() + "} <-> "
+                + rightShiftAssignment + " {" + rightShiftAssignment.getEmployee() + "}";
+    }
+
+}
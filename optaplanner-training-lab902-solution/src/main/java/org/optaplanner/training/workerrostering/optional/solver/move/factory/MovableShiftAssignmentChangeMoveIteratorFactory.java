@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.solver.move.factory;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.training.workerrostering.domain.Employee;
+import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+import org.optaplanner.training.workerrostering.optional.solver.move.ShiftAssignmentChangeMove;
+
+/**
+ * Selects from {@link Roster#getMovableShiftAssignmentList()} directly,
+ * instead of filtering out the pinned {@link ShiftAssignment}s on every selection.
+ */
+public class MovableShiftAssignmentChangeMoveIteratorFactory implements MoveIteratorFactory<Roster> {
+
+    @Override
+    public long getSize(ScoreDirector<Roster> scoreDirector) {
+        Roster roster = scoreDirector.getWorkingSolution();
+        return (long) roster.getMovableShiftAssignmentList().size() * roster.getEmployeeList().size();
+    }
+
+    @Override
+    public Iterator<Move> createOriginalMoveIterator(ScoreDirector<Roster> scoreDirector) {
+        Roster roster = scoreDirector.getWorkingSolution();
+        return new OriginalChangeMoveIterator(roster.getMovableShiftAssignmentList(), roster.getEmployeeList());
+    }
+
+    @Override
+    public Iterator<Move> createRandomMoveIterator(ScoreDirector<Roster> scoreDirector, Random workingRandom) {
+        Roster roster = scoreDirector.getWorkingSolution();
+        return new RandomChangeMoveIterator(roster.getMovableShiftAssignmentList(), roster.getEmployeeList(),
+                workingRandom);
+    }
+
+    private static class OriginalChangeMoveIterator implements Iterator<Move> {
+
+        private final List<ShiftAssignment> shiftAssignmentList;
+        private final List<Employee> employeeList;
+
+        private int shiftAssignmentIndex = 0;
+        private int employeeIndex = 0;
+
+        public OriginalChangeMoveIterator(List<ShiftAssignment> shiftAssignmentList, List<Employee> employeeList) {
+            this.shiftAssignmentList = shiftAssignmentList;
+            this.employeeList = employeeList;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !employeeList.isEmpty() && shiftAssignmentIndex < shiftAssignmentList.size();
+        }
+
+        @Override
+        public Move next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Move move = new ShiftAssignmentChangeMove(shiftAssignmentList.get(shiftAssignmentIndex),
+                    employeeList.get(employeeIndex));
+            employeeIndex++;
+            if (employeeIndex >= employeeList.size()) {
+                employeeIndex = 0;
+                shiftAssignmentIndex++;
+            }
+            return move;
+        }
+
+    }
+
+    private static class RandomChangeMoveIterator implements Iterator<Move> {
+
+        private final List<ShiftAssignment> shiftAssignmentList;
+        private final List<Employee> employeeList;
+        private final Random workingRandom;
+
+        public RandomChangeMoveIterator(List<ShiftAssignment> shiftAssignmentList, List<Employee> employeeList,
+                Random workingRandom) {
+            this.shiftAssignmentList = shiftAssignmentList;
+            this.employeeList = employeeList;
+            this.workingRandom = workingRandom;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !shiftAssignmentList.isEmpty() && !employeeList.isEmpty();
+        }
+
+        @Override
+        public Move next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ShiftAssignment shiftAssignment = shiftAssignmentList.get(workingRandom.nextInt(shiftAssignmentList.size()));
+            Employee toEmployee = employeeList.get(workingRandom.nextInt(employeeList.size()));
+            return new ShiftAssignmentChangeMove(shiftAssignment, toEmployee);
+        }
+
+    }
+
+}
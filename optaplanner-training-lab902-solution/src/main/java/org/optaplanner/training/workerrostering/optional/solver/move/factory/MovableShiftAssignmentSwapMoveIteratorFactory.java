@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.training.workerrostering.optional.solver.move.factory;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.training.workerrostering.domain.Roster;
+import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
+import org.optaplanner.training.workerrostering.optional.solver.move.ShiftAssignmentSwapMove;
+
+/**
+ * Selects from {@link Roster#getMovableShiftAssignmentList()} directly,
+ * instead of filtering out the pinned {@link ShiftAssignment}s on every selection.
+ */
+public class MovableShiftAssignmentSwapMoveIteratorFactory implements MoveIteratorFactory<Roster> {
+
+    @Override
+    public long getSize(ScoreDirector<Roster> scoreDirector) {
+        long size = scoreDirector.getWorkingSolution().getMovableShiftAssignmentList().size();
+        return size * (size - 1L) / 2L;
+    }
+
+    @Override
+    public Iterator<Move> createOriginalMoveIterator(ScoreDirector<Roster> scoreDirector) {
+        return new OriginalSwapMoveIterator(scoreDirector.getWorkingSolution().getMovableShiftAssignmentList());
+    }
+
+    @Override
+    public Iterator<Move> createRandomMoveIterator(ScoreDirector<Roster> scoreDirector, Random workingRandom) {
+        return new RandomSwapMoveIterator(scoreDirector.getWorkingSolution().getMovableShiftAssignmentList(),
+                workingRandom);
+    }
+
+    private static class OriginalSwapMoveIterator implements Iterator<Move> {
+
+        private final List<ShiftAssignment> shiftAssignmentList;
+
+        private int leftIndex = 0;
+        private int rightIndex = 1;
+
+        public OriginalSwapMoveIterator(List<ShiftAssignment> shiftAssignmentList) {
+            this.shiftAssignmentList = shiftAssignmentList;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rightIndex < shiftAssignmentList.size();
+        }
+
+        @Override
+        public Move next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Move move = new ShiftAssignmentSwapMove(shiftAssignmentList.get(leftIndex),
+                    shiftAssignmentList.get(rightIndex));
+            rightIndex++;
+            if (rightIndex >= shiftAssignmentList.size()) {
+                leftIndex++;
+                rightIndex = leftIndex + 1;
+            }
+            return move;
+        }
+
+    }
+
+    private static class RandomSwapMoveIterator implements Iterator<Move> {
+
+        private final List<ShiftAssignment> shiftAssignmentList;
+        private final Random workingRandom;
+
+        public RandomSwapMoveIterator(List<ShiftAssignment> shiftAssignmentList, Random workingRandom) {
+            this.shiftAssignmentList = shiftAssignmentList;
+            this.workingRandom = workingRandom;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return shiftAssignmentList.size() >= 2;
+        }
+
+        @Override
+        public Move next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int size = shiftAssignmentList.size();
+            int leftIndex = workingRandom.nextInt(size);
+            // Never select the same ShiftAssignment twice
+            int rightIndex = workingRandom.nextInt(size - 1);
+            if (rightIndex >= leftIndex) {
+                rightIndex++;
+            }
+            return new ShiftAssignmentSwapMove(shiftAssignmentList.get(leftIndex), shiftAssignmentList.get(rightIndex));
+        }
+
+    }
+
+}
@@ -34,6 +34,7 @@ import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
 import org.optaplanner.training.workerrostering.domain.Skill;
 import org.optaplanner.training.workerrostering.domain.Spot;
 import org.optaplanner.training.workerrostering.domain.TimeSlot;
+import org.optaplanner.training.workerrostering.domain.TimeSlotBitSet;
 import org.optaplanner.training.workerrostering.domain.TimeSlotState;
 
 public class WorkerRosteringGenerator {
@@ -121,7 +122,7 @@ public class WorkerRosteringGenerator {
         for (int i = 0; i < size; i++) {
             LocalDateTime startDateTime = previousEndDateTime;
             LocalDateTime endDateTime = startDateTime.plusHours(8);
-            TimeSlot timeSlot = new TimeSlot(startDateTime, endDateTime);
+            TimeSlot timeSlot = new TimeSlot(i, startDateTime, endDateTime);
             if (continuousPlanning && i < size / 2) {
                 if (i < size / 4) {
                     timeSlot.setTimeSlotState(TimeSlotState.HISTORY);
@@ -143,7 +144,8 @@ public class WorkerRosteringGenerator {
             String name = employeeNameGenerator.generateNextValue();
             LinkedHashSet<Skill> skillSet = new LinkedHashSet<>(extractRandomSubList(generalSkillList, 1.0));
             Employee employee = new Employee(name, skillSet);
-            Set<TimeSlot> unavailableTimeSlotSet = new LinkedHashSet<>(extractRandomSubList(timeSlotList, 0.2));
+            Set<TimeSlot> unavailableTimeSlotSet = new TimeSlotBitSet(timeSlotList);
+            unavailableTimeSlotSet.addAll(extractRandomSubList(timeSlotList, 0.2));
             employee.setUnavailableTimeSlotSet(unavailableTimeSlotSet);
             employeeList.add(employee);
         }
@@ -26,7 +26,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -36,6 +35,7 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -54,6 +54,7 @@ import org.optaplanner.training.workerrostering.domain.ShiftAssignment;
 import org.optaplanner.training.workerrostering.domain.Skill;
 import org.optaplanner.training.workerrostering.domain.Spot;
 import org.optaplanner.training.workerrostering.domain.TimeSlot;
+import org.optaplanner.training.workerrostering.domain.TimeSlotBitSet;
 import org.optaplanner.training.workerrostering.domain.TimeSlotState;
 
 public class WorkerRosteringSolutionFileIO implements SolutionFileIO<Roster> {
@@ -121,10 +122,12 @@ public class WorkerRosteringSolutionFileIO implements SolutionFileIO<Roster> {
             });
             Map<String, Spot> spotMap = spotList.stream().collect(Collectors.toMap(
                     Spot::getName, spot -> spot));
+            MutableInt timeSlotIndex = new MutableInt(0);
             List<TimeSlot> timeSlotList = readListSheet("Timeslots", new String[]{"Start", "End", "State"}, (Row row) -> {
                 LocalDateTime startDateTime = LocalDateTime.parse(row.getCell(0).getStringCellValue(), DATE_TIME_FORMATTER);
                 LocalDateTime endDateTime = LocalDateTime.parse(row.getCell(1).getStringCellValue(), DATE_TIME_FORMATTER);
-                TimeSlot timeSlot = new TimeSlot(startDateTime, endDateTime);
+                TimeSlot timeSlot = new TimeSlot(timeSlotIndex.intValue(), startDateTime, endDateTime);
+                timeSlotIndex.increment();
                 timeSlot.setTimeSlotState(TimeSlotState.valueOf(row.getCell(2).getStringCellValue()));
                 return timeSlot;
             });
@@ -139,7 +142,7 @@ public class WorkerRosteringSolutionFileIO implements SolutionFileIO<Roster> {
                     return skill;
                 }).collect(Collectors.toSet());
                 Employee employee = new Employee(name, skillSet);
-                employee.setUnavailableTimeSlotSet(new LinkedHashSet<>());
+                employee.setUnavailableTimeSlotSet(new TimeSlotBitSet(timeSlotList));
                 return employee;
             });
             Map<String, Employee> employeeMap = employeeList.stream().collect(Collectors.toMap(
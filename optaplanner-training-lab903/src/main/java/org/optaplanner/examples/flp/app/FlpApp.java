@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.app;
+
+import java.io.File;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.examples.common.app.LoggingMain;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+import org.optaplanner.examples.flp.persistence.FlpImporter;
+import org.optaplanner.examples.flp.solver.bound.FlpLagrangianLowerBoundCalculator;
+
+/**
+ * Solves 1 of the {@code data/flp/import} instances, for example {@code FlpApp fl_2000_2}.
+ * <p>
+ * With a gap percentage, for example {@code FlpApp fl_2000_2 5}, it also terminates as soon as the best solution
+ * costs at most that percentage more than the {@link FlpLagrangianLowerBoundCalculator Lagrangian lower bound},
+ * and it reports the lower bound and the final gap.
+ * Without a gap percentage, it doesn't calculate the lower bound, which takes seconds on the big instances.
+ */
+public class FlpApp extends LoggingMain {
+
+    public static final String SOLVER_CONFIG = "org/optaplanner/examples/flp/solver/flpSolverConfig.xml";
+
+    public static void main(String[] args) {
+        String inputName = args.length > 0 ? args[0] : "fl_25_2";
+        Double gapPercentage = args.length > 1 ? Double.valueOf(args[1]) : null;
+        new FlpApp().solve(new File("data/flp/import/" + inputName + ".txt"), gapPercentage);
+    }
+
+    private final String solverConfig;
+
+    public FlpApp() {
+        this(SOLVER_CONFIG);
+    }
+
+    protected FlpApp(String solverConfig) {
+        this.solverConfig = solverConfig;
+    }
+
+    public FlpSolution solve(File inputFile) {
+        return solve(inputFile, null);
+    }
+
+    /**
+     * @param inputFile never null
+     * @param gapPercentage null to not terminate on the gap
+     * @return never null
+     */
+    public FlpSolution solve(File inputFile, Double gapPercentage) {
+        FlpSolution solution = new FlpImporter().readSolution(inputFile);
+        SolverFactory<FlpSolution> solverFactory = SolverFactory.createFromXmlResource(solverConfig);
+        Long lowerBound = null;
+        if (gapPercentage != null) {
+            try {
+                lowerBound = new FlpLagrangianLowerBoundCalculator().calculateLowerBound(solution);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Solving without a gap termination, because the lower bound can't be calculated: {}",
+                        e.getMessage());
+            }
+        }
+        if (lowerBound != null) {
+            String bestScoreLimit = FlpLagrangianLowerBoundCalculator.calculateBestScoreLimit(
+                    lowerBound, gapPercentage).toString();
+            logger.info("Terminating at a gap of {}% of the lower bound ({}): best score limit ({}).",
+                    gapPercentage, lowerBound, bestScoreLimit);
+            TerminationConfig terminationConfig = solverFactory.getSolverConfig().getTerminationConfig();
+            if (terminationConfig == null) {
+                terminationConfig = new TerminationConfig();
+                solverFactory.getSolverConfig().setTerminationConfig(terminationConfig);
+            }
+            terminationConfig.setBestScoreLimit(bestScoreLimit);
+        }
+        Solver<FlpSolution> solver = solverFactory.buildSolver();
+        solution = solver.solve(solution);
+
+        Set<Warehouse> usedWarehouseSet = solution.getStoreList().stream()
+                .map(Store::getWarehouse).collect(Collectors.toSet());
+        long setupCost = usedWarehouseSet.stream().mapToLong(Warehouse::getSetupCost).sum();
+        long distanceCost = solution.getStoreList().stream().mapToLong(Store::getDistanceToWarehouse).sum();
+        logger.info("Solved {} with score ({}): {} of {} warehouses used, setup cost ({}), distance cost ({}).",
+                inputFile.getName(), solution.getScore(),
+                usedWarehouseSet.size(), solution.getWarehouseList().size(),
+                setupCost, distanceCost);
+        if (lowerBound != null) {
+            logger.info("The lower bound ({}) leaves a gap of {}%.", lowerBound, String.format("%.2f",
+                    FlpLagrangianLowerBoundCalculator.calculateGapPercentage(lowerBound, solution.getScore())));
+        }
+        return solution;
+    }
+
+}
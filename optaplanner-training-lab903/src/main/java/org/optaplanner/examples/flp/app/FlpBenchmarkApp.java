@@ -0,0 +1,293 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.app;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.optaplanner.benchmark.api.PlannerBenchmark;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+import org.optaplanner.benchmark.config.PlannerBenchmarkConfig;
+import org.optaplanner.benchmark.config.ProblemBenchmarksConfig;
+import org.optaplanner.benchmark.config.SolverBenchmarkConfig;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.examples.common.app.LoggingMain;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.persistence.FlpTxtSolutionFileIO;
+import org.optaplanner.examples.flp.solver.bound.FlpLagrangianLowerBoundCalculator;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * Benchmarks construction heuristics and local search variants on every {@code data/flp/import} instance.
+ * The report in {@code local/data/flp} shows the best score over time, the score calculation speed
+ * and the memory use per instance.
+ * <p>
+ * Before benchmarking, it calculates the {@link FlpLagrangianLowerBoundCalculator Lagrangian lower bound}
+ * of every input file of the config and writes it to {@value #LOWER_BOUNDS_FILE_NAME} in the benchmark directory,
+ * as the best soft score possible.
+ * After benchmarking, it reads the best score of every solver benchmark per input file
+ * from {@value #RESULT_FILE_NAME} of the report and writes the bound and the final gap
+ * to {@value #GAPS_FILE_NAME} in the report directory,
+ * see {@link FlpLagrangianLowerBoundCalculator#calculateGapPercentage(long, HardSoftLongScore)}.
+ */
+public class FlpBenchmarkApp extends LoggingMain {
+
+    public static final String BENCHMARK_CONFIG = "org/optaplanner/examples/flp/benchmark/flpBenchmarkConfig.xml";
+    public static final String LOWER_BOUNDS_FILE_NAME = "lowerBounds.csv";
+    public static final String GAPS_FILE_NAME = "gaps.csv";
+    public static final String RESULT_FILE_NAME = "plannerBenchmarkResult.xml";
+
+    public static void main(String[] args) {
+        new FlpBenchmarkApp().benchmark();
+    }
+
+    public void benchmark() {
+        PlannerBenchmarkFactory plannerBenchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource(
+                BENCHMARK_CONFIG);
+        PlannerBenchmarkConfig plannerBenchmarkConfig = plannerBenchmarkFactory.getPlannerBenchmarkConfig();
+        Map<File, Long> lowerBoundMap = calculateLowerBounds(plannerBenchmarkConfig);
+        writeLowerBounds(plannerBenchmarkConfig.getBenchmarkDirectory(), lowerBoundMap);
+        long startingTimeMillis = System.currentTimeMillis();
+        PlannerBenchmark plannerBenchmark = plannerBenchmarkFactory.buildPlannerBenchmark();
+        plannerBenchmark.benchmark();
+        File resultFile = findResultFile(plannerBenchmarkConfig.getBenchmarkDirectory(), startingTimeMillis);
+        writeGaps(resultFile, lowerBoundMap);
+    }
+
+    /**
+     * Only reads the config, so it doesn't depend on the benchmark implementation.
+     * @param plannerBenchmarkConfig never null
+     * @return never null, the lower bound per input file, null if it can't be calculated
+     */
+    public Map<File, Long> calculateLowerBounds(PlannerBenchmarkConfig plannerBenchmarkConfig) {
+        Set<File> inputSolutionFileSet = new LinkedHashSet<>();
+        addInputSolutionFiles(inputSolutionFileSet, plannerBenchmarkConfig.getInheritedSolverBenchmarkConfig());
+        for (SolverBenchmarkConfig solverBenchmarkConfig : plannerBenchmarkConfig.getSolverBenchmarkConfigList()) {
+            addInputSolutionFiles(inputSolutionFileSet, solverBenchmarkConfig);
+        }
+        FlpTxtSolutionFileIO solutionFileIO = new FlpTxtSolutionFileIO();
+        FlpLagrangianLowerBoundCalculator lowerBoundCalculator = new FlpLagrangianLowerBoundCalculator();
+        Map<File, Long> lowerBoundMap = new LinkedHashMap<>(inputSolutionFileSet.size());
+        for (File inputSolutionFile : inputSolutionFileSet) {
+            FlpSolution solution = solutionFileIO.read(inputSolutionFile);
+            Long lowerBound;
+            try {
+                lowerBound = lowerBoundCalculator.calculateLowerBound(solution);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Skipping the lower bound of {}: {}", inputSolutionFile.getName(), e.getMessage());
+                lowerBound = null;
+            }
+            logger.info("{} has a lower bound ({}).", inputSolutionFile.getName(), lowerBound);
+            lowerBoundMap.put(inputSolutionFile, lowerBound);
+        }
+        return lowerBoundMap;
+    }
+
+    private static void addInputSolutionFiles(Set<File> inputSolutionFileSet,
+            SolverBenchmarkConfig solverBenchmarkConfig) {
+        if (solverBenchmarkConfig == null) {
+            return;
+        }
+        ProblemBenchmarksConfig problemBenchmarksConfig = solverBenchmarkConfig.getProblemBenchmarksConfig();
+        if (problemBenchmarksConfig != null && problemBenchmarksConfig.getInputSolutionFileList() != null) {
+            inputSolutionFileSet.addAll(problemBenchmarksConfig.getInputSolutionFileList());
+        }
+    }
+
+    /**
+     * @param benchmarkDirectory never null
+     * @param lowerBoundMap never null, see {@link #calculateLowerBounds(PlannerBenchmarkConfig)}
+     * @return never null, the lower bounds file
+     */
+    public File writeLowerBounds(File benchmarkDirectory, Map<File, Long> lowerBoundMap) {
+        benchmarkDirectory.mkdirs();
+        File lowerBoundsFile = new File(benchmarkDirectory, LOWER_BOUNDS_FILE_NAME);
+        try (BufferedWriter writer = Files.newBufferedWriter(lowerBoundsFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("inputSolutionFile,lowerBound,bestScorePossible\n");
+            for (Map.Entry<File, Long> entry : lowerBoundMap.entrySet()) {
+                Long lowerBound = entry.getValue();
+                writer.write(entry.getKey().getPath() + ","
+                        + (lowerBound == null ? "" : lowerBound) + ","
+                        + (lowerBound == null ? ""
+                                : FlpLagrangianLowerBoundCalculator.calculateBestScoreLimit(lowerBound, 0.0))
+                        + "\n");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing the lowerBoundsFile (" + lowerBoundsFile + ") failed.", e);
+        }
+        return lowerBoundsFile;
+    }
+
+    /**
+     * @param benchmarkDirectory never null
+     * @param startingTimeMillis the benchmark started at or after this time
+     * @return never null, the {@value #RESULT_FILE_NAME} of the newest report
+     */
+    private File findResultFile(File benchmarkDirectory, long startingTimeMillis) {
+        File resultFile = null;
+        File[] reportDirectories = benchmarkDirectory.listFiles(File::isDirectory);
+        if (reportDirectories != null) {
+            for (File reportDirectory : reportDirectories) {
+                File file = new File(reportDirectory, RESULT_FILE_NAME);
+                if (file.exists() && file.lastModified() >= startingTimeMillis
+                        && (resultFile == null || file.lastModified() > resultFile.lastModified())) {
+                    resultFile = file;
+                }
+            }
+        }
+        if (resultFile == null) {
+            throw new IllegalStateException("The benchmarkDirectory (" + benchmarkDirectory
+                    + ") has no report with a " + RESULT_FILE_NAME + " of this benchmark.");
+        }
+        return resultFile;
+    }
+
+    /**
+     * Reads the result XML as a document, so it doesn't depend on the benchmark implementation classes.
+     * The singleBenchmarkResult elements are shared between the solverBenchmarkResult
+     * and the problem benchmark result elements through the {@code xStreamId} and {@code xStreamRef} attributes.
+     * @param resultFile never null, a {@value #RESULT_FILE_NAME}
+     * @param lowerBoundMap never null, see {@link #calculateLowerBounds(PlannerBenchmarkConfig)}
+     * @return never null, the gaps file, in the same directory as the resultFile
+     */
+    public File writeGaps(File resultFile, Map<File, Long> lowerBoundMap) {
+        Document document;
+        try {
+            document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(resultFile);
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalStateException("Reading the resultFile (" + resultFile + ") failed.", e);
+        }
+        Element root = document.getDocumentElement();
+        Map<String, String> solverNameMap = new HashMap<>();
+        Map<String, String> inputSolutionFileMap = new HashMap<>();
+        Map<String, HardSoftLongScore> bestScoreMap = new HashMap<>();
+        List<String> singleIdList = new ArrayList<>();
+        for (Element element : getChildElements(root)) {
+            if (element.getTagName().equals("solverBenchmarkResult")) {
+                String solverName = getChildText(element, "name");
+                for (Element single : getChildElements(element, "singleBenchmarkResult")) {
+                    String singleId = getSingleId(single);
+                    solverNameMap.put(singleId, solverName);
+                    singleIdList.add(singleId);
+                }
+            } else if (getChildText(element, "inputSolutionFile") != null) {
+                String inputSolutionFile = getChildText(element, "inputSolutionFile");
+                for (Element single : getChildElements(element, "singleBenchmarkResult")) {
+                    inputSolutionFileMap.put(getSingleId(single), inputSolutionFile);
+                }
+            }
+        }
+        for (Element single : getDescendantElements(root, "singleBenchmarkResult")) {
+            if (single.hasAttribute("xStreamRef")) {
+                continue;
+            }
+            HardSoftLongScore bestScore = null;
+            for (Element subSingle : getChildElements(single, "subSingleBenchmarkResult")) {
+                String scoreString = getChildText(subSingle, "score");
+                if ("true".equals(getChildText(subSingle, "succeeded")) && scoreString != null) {
+                    HardSoftLongScore score = HardSoftLongScore.parseScore(scoreString);
+                    if (bestScore == null || score.compareTo(bestScore) > 0) {
+                        bestScore = score;
+                    }
+                }
+            }
+            bestScoreMap.put(single.getAttribute("xStreamId"), bestScore);
+        }
+        File gapsFile = new File(resultFile.getParentFile(), GAPS_FILE_NAME);
+        try (BufferedWriter writer = Files.newBufferedWriter(gapsFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("solverBenchmark,inputSolutionFile,lowerBound,bestScore,gapPercentage\n");
+            for (String singleId : singleIdList) {
+                String solverName = solverNameMap.get(singleId);
+                String inputSolutionFile = inputSolutionFileMap.get(singleId);
+                Long lowerBound = inputSolutionFile == null ? null : lowerBoundMap.get(new File(inputSolutionFile));
+                HardSoftLongScore bestScore = bestScoreMap.get(singleId);
+                double gapPercentage = (lowerBound == null || bestScore == null) ? Double.NaN
+                        : FlpLagrangianLowerBoundCalculator.calculateGapPercentage(lowerBound, bestScore);
+                String gap = Double.isNaN(gapPercentage) ? ""
+                        : String.format(Locale.ENGLISH, "%.3f", gapPercentage);
+                logger.info("{} on {}: best score ({}), gap ({}%) with the lower bound ({}).",
+                        solverName, inputSolutionFile, bestScore, gap, lowerBound);
+                writer.write(solverName + "," + inputSolutionFile + ","
+                        + (lowerBound == null ? "" : lowerBound) + ","
+                        + (bestScore == null ? "" : bestScore) + "," + gap + "\n");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing the gapsFile (" + gapsFile + ") failed.", e);
+        }
+        return gapsFile;
+    }
+
+    private static String getSingleId(Element single) {
+        return single.hasAttribute("xStreamRef") ? single.getAttribute("xStreamRef") : single.getAttribute("xStreamId");
+    }
+
+    private static List<Element> getChildElements(Element parent) {
+        List<Element> elementList = new ArrayList<>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element) {
+                elementList.add((Element) node);
+            }
+        }
+        return elementList;
+    }
+
+    private static List<Element> getChildElements(Element parent, String tagName) {
+        List<Element> elementList = new ArrayList<>();
+        for (Element element : getChildElements(parent)) {
+            if (element.getTagName().equals(tagName)) {
+                elementList.add(element);
+            }
+        }
+        return elementList;
+    }
+
+    private static List<Element> getDescendantElements(Element parent, String tagName) {
+        List<Element> elementList = new ArrayList<>();
+        for (Element element : getChildElements(parent)) {
+            if (element.getTagName().equals(tagName)) {
+                elementList.add(element);
+            }
+            elementList.addAll(getDescendantElements(element, tagName));
+        }
+        return elementList;
+    }
+
+    /**
+     * @return null if there is no such child element
+     */
+    private static String getChildText(Element parent, String tagName) {
+        List<Element> elementList = getChildElements(parent, tagName);
+        return elementList.isEmpty() ? null : elementList.get(0).getTextContent().trim();
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.app;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+import org.optaplanner.examples.flp.domain.distance.DenseFlpDistanceMatrix;
+import org.optaplanner.examples.flp.domain.distance.FlpDistanceMatrix;
+import org.optaplanner.examples.flp.persistence.FlpImporter;
+import org.optaplanner.examples.flp.solver.score.FlpIncrementalScoreCalculator;
+
+/**
+ * Measures the score calculation speed of {@link FlpIncrementalScoreCalculator}
+ * without a distance matrix and with a {@link DenseFlpDistanceMatrix}.
+ * <p>
+ * Like a change move, every step moves a random store to a random warehouse,
+ * notifies the calculator before and after and calculates the score.
+ * Run it with {@code [inputName] [stepCount]}.
+ */
+public class FlpDistanceMatrixBenchmarkApp {
+
+    public static void main(String[] args) {
+        String inputName = args.length > 0 ? args[0] : "fl_2000_2";
+        int stepCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        FlpSolution solution = new FlpImporter().readSolution(new File("data/flp/import/" + inputName + ".txt"));
+        List<Store> storeList = solution.getStoreList();
+        List<Warehouse> warehouseList = solution.getWarehouseList();
+        int storeListSize = storeList.size();
+
+        long startNanos = System.nanoTime();
+        FlpDistanceMatrix denseDistanceMatrix = new DenseFlpDistanceMatrix(storeList, warehouseList);
+        System.out.printf("Built the dense matrix of %,d distances in %.1f ms.\n",
+                (long) storeListSize * warehouseList.size(), (System.nanoTime() - startNanos) / 1_000_000.0);
+
+        // Warm up the JIT compiler
+        benchmark(solution, (ignored) -> denseDistanceMatrix, stepCount);
+        System.out.println("Distance matrix                  Score calculations per second");
+        System.out.printf("%-32s %,29d\n", "None (FlpLocation.getDistance)",
+                benchmark(solution, (ignored) -> null, stepCount));
+        System.out.printf("%-32s %,29d\n", "Dense",
+                benchmark(solution, (ignored) -> denseDistanceMatrix, stepCount));
+    }
+
+    /**
+     * @return the score calculation count per second
+     */
+    private static long benchmark(FlpSolution solution,
+            Function<FlpSolution, FlpDistanceMatrix> distanceMatrixFunction, int stepCount) {
+        Random random = new Random(37);
+        List<Store> storeList = solution.getStoreList();
+        List<Warehouse> warehouseList = solution.getWarehouseList();
+        FlpDistanceMatrix distanceMatrix = distanceMatrixFunction.apply(solution);
+        for (Store store : storeList) {
+            store.setDistanceMatrix(distanceMatrix);
+            store.setWarehouse(warehouseList.get(random.nextInt(warehouseList.size())));
+        }
+        FlpIncrementalScoreCalculator scoreCalculator = new FlpIncrementalScoreCalculator();
+        scoreCalculator.resetWorkingSolution(solution);
+        // Use the scores, so the JIT can't eliminate the score calculation
+        long hardScoreSum = 0L;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < stepCount; i++) {
+            Store store = storeList.get(random.nextInt(storeList.size()));
+            scoreCalculator.beforeVariableChanged(store, "warehouse");
+            store.setWarehouse(warehouseList.get(random.nextInt(warehouseList.size())));
+            scoreCalculator.afterVariableChanged(store, "warehouse");
+            hardScoreSum += ((HardSoftLongScore) scoreCalculator.calculateScore(0)).getHardScore();
+        }
+        long nanos = System.nanoTime() - startNanos;
+        if (hardScoreSum > 0L) {
+            throw new IllegalStateException("The hardScoreSum (" + hardScoreSum + ") can't be positive.");
+        }
+        return stepCount * 1_000_000_000L / Math.max(nanos, 1L);
+    }
+
+}
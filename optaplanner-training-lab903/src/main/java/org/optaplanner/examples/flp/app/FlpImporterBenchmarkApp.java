@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.app;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Random;
+
+import org.optaplanner.examples.common.persistence.AbstractSolutionImporter;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.persistence.FlpImporter;
+import org.optaplanner.examples.flp.persistence.FlpMappedImporter;
+
+/**
+ * Compares the read time and the allocated bytes of {@link FlpImporter} and {@link FlpMappedImporter}
+ * on a generated instance, for example {@code FlpImporterBenchmarkApp 100000 100},
+ * and fails if they don't read exactly the same numbers.
+ * <p>
+ * The generated file is deleted afterwards.
+ * Both importers also build the distance matrix and the nearby warehouses of every store,
+ * so that time is measured separately and subtracted from the read time.
+ */
+public class FlpImporterBenchmarkApp {
+
+    private static final int WARM_UP_COUNT = 3;
+    private static final int MEASURE_COUNT = 5;
+
+    public static void main(String[] args) {
+        int storeListSize = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int warehouseListSize = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        File inputFile = writeInputFile(warehouseListSize, storeListSize);
+        try {
+            System.out.println("Reading " + warehouseListSize + " warehouses and " + storeListSize + " stores ("
+                    + (inputFile.length() / 1024L) + " KB).");
+            FlpSolution expectedSolution = new FlpImporter().readSolution(inputFile);
+            long initNanos = measureInitNanos(expectedSolution);
+            System.out.printf("%-20s %7.1f ms per read.\n", "Nearby warehouses", initNanos / 1_000_000.0);
+            benchmark("FlpImporter", new FlpImporter(), inputFile, initNanos);
+            FlpSolution actualSolution = benchmark("FlpMappedImporter", new FlpMappedImporter(), inputFile, initNanos);
+            FlpSolutionAssertions.assertEquals(expectedSolution, actualSolution);
+            System.out.println("Both importers read the same numbers.");
+        } finally {
+            inputFile.delete();
+        }
+    }
+
+    /**
+     * Like the Van Hentenryck instances: uniformly spread locations,
+     * setup costs with 4 decimals and total capacity for twice the total demand.
+     */
+    private static File writeInputFile(int warehouseListSize, int storeListSize) {
+        Random random = new Random(37);
+        int[] demands = new int[storeListSize];
+        long demandTotal = 0L;
+        for (int i = 0; i < storeListSize; i++) {
+            demands[i] = 1 + random.nextInt(100);
+            demandTotal += demands[i];
+        }
+        int capacity = (int) (demandTotal * 2L / warehouseListSize) + 1;
+        try {
+            File inputFile = File.createTempFile("flp-", ".txt");
+            try (BufferedWriter writer = Files.newBufferedWriter(inputFile.toPath(), StandardCharsets.UTF_8)) {
+                writer.write("# Generated by FlpImporterBenchmarkApp\n");
+                writer.write("# numberOfPotentialWarehouses numberOfStores\n");
+                writer.write(warehouseListSize + " " + storeListSize + "\n");
+                writer.write("# For each warehouse: setupCost capacity latitude longitude\n");
+                for (int i = 0; i < warehouseListSize; i++) {
+                    writer.write(String.format(Locale.US, "%.4f %d %.4f %.4f \n", 5000.0 + random.nextDouble() * 5000.0,
+                            capacity, random.nextDouble() * 100000.0, random.nextDouble() * 100000.0));
+                }
+                writer.write("# For each store: demand latitude longitude\n");
+                for (int i = 0; i < storeListSize; i++) {
+                    writer.write(String.format(Locale.US, "%d %.4f %.4f \n", demands[i],
+                            random.nextDouble() * 100000.0, random.nextDouble() * 100000.0));
+                }
+            }
+            return inputFile;
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing the generated input file failed.", e);
+        }
+    }
+
+    private static long measureInitNanos(FlpSolution solution) {
+        for (int i = 0; i < WARM_UP_COUNT; i++) {
+            solution.initDistanceMatrix();
+            solution.initNearbyWarehouses(FlpSolution.NEARBY_WAREHOUSE_LIST_SIZE);
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURE_COUNT; i++) {
+            solution.initDistanceMatrix();
+            solution.initNearbyWarehouses(FlpSolution.NEARBY_WAREHOUSE_LIST_SIZE);
+        }
+        return (System.nanoTime() - startNanos) / MEASURE_COUNT;
+    }
+
+    private static FlpSolution benchmark(String importerName, AbstractSolutionImporter<FlpSolution> importer,
+            File inputFile, long initNanos) {
+        for (int i = 0; i < WARM_UP_COUNT; i++) {
+            importer.readSolution(inputFile);
+        }
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long allocatedBytesBefore = measureAllocatedBytes(threadMXBean);
+        long startNanos = System.nanoTime();
+        FlpSolution solution = null;
+        for (int i = 0; i < MEASURE_COUNT; i++) {
+            solution = importer.readSolution(inputFile);
+        }
+        long nanosPerRead = (System.nanoTime() - startNanos) / MEASURE_COUNT;
+        long allocatedBytesAfter = measureAllocatedBytes(threadMXBean);
+        String allocatedMegabytes = allocatedBytesBefore < 0L ? "?"
+                : Long.toString((allocatedBytesAfter - allocatedBytesBefore) / MEASURE_COUNT / (1024L * 1024L));
+        System.out.printf("%-20s %7.1f ms per read, %7.1f ms without the nearby warehouses,"
+                        + " %s MB allocated per read.\n",
+                importerName, nanosPerRead / 1_000_000.0, (nanosPerRead - initNanos) / 1_000_000.0,
+                allocatedMegabytes);
+        return solution;
+    }
+
+    /**
+     * @param threadMXBean never null
+     * @return -1 if the JVM doesn't measure allocations per thread
+     */
+    private static long measureAllocatedBytes(ThreadMXBean threadMXBean) {
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.app;
+
+import java.io.File;
+
+import org.optaplanner.examples.flp.solver.partitioner.FlpKMeansSolutionPartitioner;
+
+/**
+ * Same as {@link FlpApp}, but solves the {@link FlpKMeansSolutionPartitioner geographic clusters} concurrently first,
+ * for example {@code FlpPartitionedApp fl_2000_2}. It only gets faster on a machine with multiple CPU cores.
+ */
+public class FlpPartitionedApp extends FlpApp {
+
+    public static final String SOLVER_CONFIG = "org/optaplanner/examples/flp/solver/flpPartitionedSolverConfig.xml";
+
+    public static void main(String[] args) {
+        String inputName = args.length > 0 ? args[0] : "fl_2000_2";
+        Double gapPercentage = args.length > 1 ? Double.valueOf(args[1]) : null;
+        new FlpPartitionedApp().solve(new File("data/flp/import/" + inputName + ".txt"), gapPercentage);
+    }
+
+    public FlpPartitionedApp() {
+        super(SOLVER_CONFIG);
+    }
+
+}
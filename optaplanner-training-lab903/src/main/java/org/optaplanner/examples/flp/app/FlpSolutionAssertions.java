@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.app;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+
+/**
+ * Fails if 2 {@link FlpSolution}s read by different importers or file IO's differ in any number,
+ * warehouse assignment or score.
+ */
+final class FlpSolutionAssertions {
+
+    static void assertEquals(FlpSolution expectedSolution, FlpSolution actualSolution) {
+        if (!Objects.equals(expectedSolution.getId(), actualSolution.getId())) {
+            throw new IllegalStateException("The solution ids (" + expectedSolution.getId()
+                    + ", " + actualSolution.getId() + ") differ.");
+        }
+        if (!Objects.equals(expectedSolution.getScore(), actualSolution.getScore())) {
+            throw new IllegalStateException("The scores (" + expectedSolution.getScore()
+                    + ", " + actualSolution.getScore() + ") differ.");
+        }
+        List<Warehouse> expectedWarehouseList = expectedSolution.getWarehouseList();
+        List<Warehouse> actualWarehouseList = actualSolution.getWarehouseList();
+        if (expectedWarehouseList.size() != actualWarehouseList.size()) {
+            throw new IllegalStateException("The warehouseList sizes differ.");
+        }
+        for (int i = 0; i < expectedWarehouseList.size(); i++) {
+            Warehouse expected = expectedWarehouseList.get(i);
+            Warehouse actual = actualWarehouseList.get(i);
+            if (!expected.getId().equals(actual.getId())
+                    || expected.getSetupCost() != actual.getSetupCost()
+                    || expected.getCapacity() != actual.getCapacity()
+                    || expected.getLocation().getLatitude() != actual.getLocation().getLatitude()
+                    || expected.getLocation().getLongitude() != actual.getLocation().getLongitude()) {
+                throw new IllegalStateException("The warehouse (" + i + ") differs.");
+            }
+        }
+        List<Store> expectedStoreList = expectedSolution.getStoreList();
+        List<Store> actualStoreList = actualSolution.getStoreList();
+        if (expectedStoreList.size() != actualStoreList.size()) {
+            throw new IllegalStateException("The storeList sizes differ.");
+        }
+        for (int i = 0; i < expectedStoreList.size(); i++) {
+            Store expected = expectedStoreList.get(i);
+            Store actual = actualStoreList.get(i);
+            Warehouse expectedWarehouse = expected.getWarehouse();
+            Warehouse actualWarehouse = actual.getWarehouse();
+            if (!expected.getId().equals(actual.getId())
+                    || expected.getDemand() != actual.getDemand()
+                    || expected.getLocation().getLatitude() != actual.getLocation().getLatitude()
+                    || expected.getLocation().getLongitude() != actual.getLocation().getLongitude()
+                    || (expectedWarehouse == null ? actualWarehouse != null
+                    : actualWarehouse == null || !expectedWarehouse.getId().equals(actualWarehouse.getId()))) {
+                throw new IllegalStateException("The store (" + i + ") differs.");
+            }
+        }
+    }
+
+    private FlpSolutionAssertions() {
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Function;
+
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.persistence.FlpBinarySolutionFileIO;
+import org.optaplanner.examples.flp.persistence.FlpDao;
+import org.optaplanner.examples.flp.persistence.FlpTxtSolutionFileIO;
+
+/**
+ * Compares the read time of the XStream XML, the txt and the binary format of the same dataset,
+ * for example {@code FlpSolutionFileIOBenchmarkApp data/flp/import/fl_2000_2.txt},
+ * and fails if any of them doesn't read exactly the same {@link FlpSolution}.
+ * <p>
+ * The XML and binary files are written from the txt file into temporary files, which are deleted afterwards.
+ * All formats also build the distance matrix and the nearby warehouses, so that is included in every read time.
+ */
+public class FlpSolutionFileIOBenchmarkApp {
+
+    private static final int WARM_UP_COUNT = 3;
+    private static final int MEASURE_COUNT = 5;
+
+    public static void main(String[] args) {
+        File txtFile = new File(args.length > 0 ? args[0] : "data/flp/import/fl_2000_2.txt");
+        FlpTxtSolutionFileIO txtSolutionFileIO = new FlpTxtSolutionFileIO();
+        FlpBinarySolutionFileIO binarySolutionFileIO = new FlpBinarySolutionFileIO();
+        FlpDao dao = new FlpDao();
+        FlpSolution expectedSolution = txtSolutionFileIO.read(txtFile);
+        File xmlFile = createTempFile("xml");
+        File binaryFile = createTempFile(binarySolutionFileIO.getOutputFileExtension());
+        try {
+            dao.writeSolution(expectedSolution, xmlFile);
+            binarySolutionFileIO.write(expectedSolution, binaryFile);
+            System.out.println("Reading " + expectedSolution.getWarehouseList().size() + " warehouses and "
+                    + expectedSolution.getStoreList().size() + " stores.");
+            benchmark("XML", xmlFile, dao::readSolution, expectedSolution);
+            benchmark("txt", txtFile, txtSolutionFileIO::read, expectedSolution);
+            benchmark("Binary", binaryFile, binarySolutionFileIO::read, expectedSolution);
+            System.out.println("All formats read the same solution.");
+        } finally {
+            xmlFile.delete();
+            binaryFile.delete();
+        }
+    }
+
+    private static File createTempFile(String extension) {
+        try {
+            return File.createTempFile("flp-", "." + extension);
+        } catch (IOException e) {
+            throw new IllegalStateException("Creating a temporary file failed.", e);
+        }
+    }
+
+    private static void benchmark(String formatName, File inputFile, Function<File, FlpSolution> reader,
+            FlpSolution expectedSolution) {
+        for (int i = 0; i < WARM_UP_COUNT; i++) {
+            reader.apply(inputFile);
+        }
+        long startNanos = System.nanoTime();
+        FlpSolution solution = null;
+        for (int i = 0; i < MEASURE_COUNT; i++) {
+            solution = reader.apply(inputFile);
+        }
+        long nanosPerRead = (System.nanoTime() - startNanos) / MEASURE_COUNT;
+        System.out.printf("%-8s %7.1f ms per read of %,d KB.\n",
+                formatName, nanosPerRead / 1_000_000.0, inputFile.length() / 1024L);
+        FlpSolutionAssertions.assertEquals(expectedSolution, solution);
+    }
+
+}
@@ -16,22 +16,35 @@
 
 package org.optaplanner.examples.flp.domain;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
 
 import com.thoughtworks.xstream.annotations.XStreamAlias;
-import org.optaplanner.core.api.domain.solution.Solution;
-import org.optaplanner.core.api.score.Score;
-import org.optaplanner.core.api.score.buildin.simple.SimpleScore;
+import com.thoughtworks.xstream.annotations.XStreamConverter;
+import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
+import org.optaplanner.core.api.domain.solution.PlanningScore;
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.domain.solution.drools.ProblemFactCollectionProperty;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 import org.optaplanner.examples.common.domain.AbstractPersistable;
+import org.optaplanner.examples.flp.domain.distance.FlpDistanceMatrix;
+import org.optaplanner.examples.flp.domain.distance.WarehouseKdTree;
+import org.optaplanner.persistence.xstream.api.score.buildin.hardsoftlong.HardSoftLongScoreXStreamConverter;
 
+@PlanningSolution
 @XStreamAlias("FlpSolution")
 public class FlpSolution extends AbstractPersistable {
 
+    public static final int NEARBY_WAREHOUSE_LIST_SIZE = 20;
+
     private List<FlpLocation> locationList;
     private List<Warehouse> warehouseList;
     private List<Store> storeList;
 
+    @XStreamConverter(HardSoftLongScoreXStreamConverter.class)
+    private HardSoftLongScore score;
+
     public List<FlpLocation> getLocationList() {
         return locationList;
     }
@@ -40,6 +53,8 @@ public class FlpSolution extends AbstractPersistable {
         this.locationList = locationList;
     }
 
+    @ValueRangeProvider(id = "warehouseRange")
+    @ProblemFactCollectionProperty
     public List<Warehouse> getWarehouseList() {
         return warehouseList;
     }
@@ -48,6 +63,7 @@ public class FlpSolution extends AbstractPersistable {
         this.warehouseList = warehouseList;
     }
 
+    @PlanningEntityCollectionProperty
     public List<Store> getStoreList() {
         return storeList;
     }
@@ -56,4 +72,40 @@ public class FlpSolution extends AbstractPersistable {
         this.storeList = storeList;
     }
 
+    @PlanningScore
+    public HardSoftLongScore getScore() {
+        return score;
+    }
+
+    public void setScore(HardSoftLongScore score) {
+        this.score = score;
+    }
+
+    // ************************************************************************
+    // Complex methods
+    // ************************************************************************
+
+    /**
+     * Call this after loading, because the distance matrix isn't persisted.
+     * See {@link FlpDistanceMatrix#create(List, List)}.
+     */
+    public void initDistanceMatrix() {
+        FlpDistanceMatrix distanceMatrix = FlpDistanceMatrix.create(storeList, warehouseList);
+        for (Store store : storeList) {
+            store.setDistanceMatrix(distanceMatrix);
+        }
+    }
+
+    /**
+     * Call this after loading, because the nearby warehouses of a store aren't persisted.
+     * @param nearbyWarehouseListSize {@code >= 1}
+     */
+    public void initNearbyWarehouses(int nearbyWarehouseListSize) {
+        WarehouseKdTree warehouseKdTree = new WarehouseKdTree(warehouseList);
+        for (Store store : storeList) {
+            store.setNearbyWarehouseList(Arrays.asList(
+                    warehouseKdTree.findNearestWarehouses(store.getLocation(), nearbyWarehouseListSize)));
+        }
+    }
+
 }
@@ -16,14 +16,36 @@
 
 package org.optaplanner.examples.flp.domain;
 
+import java.util.List;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
+import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.locator.PlanningId;
+import org.optaplanner.core.api.domain.variable.PlanningVariable;
 import org.optaplanner.examples.common.domain.AbstractPersistable;
+import org.optaplanner.examples.flp.domain.distance.FlpDistanceMatrix;
+import org.optaplanner.examples.flp.domain.solver.StoreDifficultyComparator;
 
+@PlanningEntity(difficultyComparatorClass = StoreDifficultyComparator.class)
 @XStreamAlias("Store")
 public class Store extends AbstractPersistable {
 
     private FlpLocation location;
     private int demand;
+    // Shared by all stores, calculated after loading instead of persisted, null if calculating is faster
+    private transient FlpDistanceMatrix distanceMatrix;
+    // Calculated after loading instead of persisted, nearest first
+    private transient List<Warehouse> nearbyWarehouseList;
+
+    // Planning variables: changes during planning, between score calculations.
+    private Warehouse warehouse;
+
+    // The partitions have copies of the stores, which partitioned search maps back by this id
+    @PlanningId
+    @Override
+    public Long getId() {
+        return super.getId();
+    }
 
     public FlpLocation getLocation() {
         return location;
@@ -41,4 +63,46 @@ public class Store extends AbstractPersistable {
         this.demand = demand;
     }
 
+    public FlpDistanceMatrix getDistanceMatrix() {
+        return distanceMatrix;
+    }
+
+    public void setDistanceMatrix(FlpDistanceMatrix distanceMatrix) {
+        this.distanceMatrix = distanceMatrix;
+    }
+
+    public List<Warehouse> getNearbyWarehouseList() {
+        return nearbyWarehouseList;
+    }
+
+    public void setNearbyWarehouseList(List<Warehouse> nearbyWarehouseList) {
+        this.nearbyWarehouseList = nearbyWarehouseList;
+    }
+
+    @PlanningVariable(valueRangeProviderRefs = {"warehouseRange"})
+    public Warehouse getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(Warehouse warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    // ************************************************************************
+    // Complex methods
+    // ************************************************************************
+
+    /**
+     * @return 0 if the store isn't assigned to a warehouse yet
+     */
+    public long getDistanceToWarehouse() {
+        if (warehouse == null) {
+            return 0L;
+        }
+        if (distanceMatrix == null) {
+            return location.getDistance(warehouse.getLocation());
+        }
+        return distanceMatrix.getDistance(this, warehouse);
+    }
+
 }
@@ -17,6 +17,7 @@
 package org.optaplanner.examples.flp.domain;
 
 import com.thoughtworks.xstream.annotations.XStreamAlias;
+import org.optaplanner.core.api.domain.locator.PlanningId;
 import org.optaplanner.examples.common.domain.AbstractPersistable;
 
 @XStreamAlias("Warehouse")
@@ -26,6 +27,13 @@ public class Warehouse extends AbstractPersistable {
     private long setupCost;
     private int capacity;
 
+    // Needed to locate the assigned warehouse of a partition store in the working solution
+    @PlanningId
+    @Override
+    public Long getId() {
+        return super.getId();
+    }
+
     public FlpLocation getLocation() {
         return location;
     }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.domain.distance;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.optaplanner.examples.flp.domain.FlpLocation;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+
+/**
+ * All distances in 1 flat array, calculated in parallel at load time.
+ * If every distance fits, it's an {@code int[]} instead of a {@code long[]},
+ * which halves the memory and so fits twice as many distances in the CPU cache.
+ */
+public class DenseFlpDistanceMatrix implements FlpDistanceMatrix {
+
+    private final int warehouseListSize;
+    // Exactly 1 of these is null
+    private final int[] intDistances;
+    private final long[] longDistances;
+
+    public DenseFlpDistanceMatrix(List<Store> storeList, List<Warehouse> warehouseList) {
+        warehouseListSize = warehouseList.size();
+        long distanceCount = (long) storeList.size() * warehouseListSize;
+        if (distanceCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The distanceCount (" + distanceCount
+                    + ") is too big for a dense distance matrix.");
+        }
+        long[] distances = new long[(int) distanceCount];
+        FlpLocation[] warehouseLocations = warehouseList.stream().map(Warehouse::getLocation)
+                .toArray(FlpLocation[]::new);
+        long maximumDistance = IntStream.range(0, storeList.size()).parallel().mapToLong((storeIndex) -> {
+            FlpLocation storeLocation = storeList.get(storeIndex).getLocation();
+            int offset = storeIndex * warehouseListSize;
+            long rowMaximumDistance = 0L;
+            for (int i = 0; i < warehouseListSize; i++) {
+                long distance = storeLocation.getDistance(warehouseLocations[i]);
+                distances[offset + i] = distance;
+                rowMaximumDistance = Math.max(rowMaximumDistance, distance);
+            }
+            return rowMaximumDistance;
+        }).max().orElse(0L);
+        if (maximumDistance <= Integer.MAX_VALUE) {
+            intDistances = new int[distances.length];
+            for (int i = 0; i < distances.length; i++) {
+                intDistances[i] = (int) distances[i];
+            }
+            longDistances = null;
+        } else {
+            intDistances = null;
+            longDistances = distances;
+        }
+    }
+
+    @Override
+    public long getDistance(Store store, Warehouse warehouse) {
+        int index = store.getId().intValue() * warehouseListSize + warehouse.getId().intValue();
+        return intDistances != null ? intDistances[index] : longDistances[index];
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.domain.distance;
+
+import java.util.List;
+
+import org.optaplanner.examples.flp.domain.FlpLocation;
+import org.optaplanner.examples.flp.domain.Warehouse;
+
+/**
+ * A 2-dimensional tree over the warehouse locations, to find the k nearest warehouses of a location
+ * in about {@code O(k log n)} instead of sorting all warehouses by distance.
+ * <p>
+ * The tree is implicit: every subrange of {@link #treeIndexes} has its splitting node in its middle,
+ * with the nodes that are smaller on the splitting axis before it and the others after it.
+ * The axis alternates between latitude and longitude per level.
+ */
+public class WarehouseKdTree {
+
+    private final List<Warehouse> warehouseList;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] treeIndexes;
+
+    /**
+     * @param warehouseList never null
+     */
+    public WarehouseKdTree(List<Warehouse> warehouseList) {
+        this.warehouseList = warehouseList;
+        int size = warehouseList.size();
+        latitudes = new double[size];
+        longitudes = new double[size];
+        treeIndexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            FlpLocation location = warehouseList.get(i).getLocation();
+            latitudes[i] = location.getLatitude();
+            longitudes[i] = location.getLongitude();
+            treeIndexes[i] = i;
+        }
+        build(0, size, 0);
+    }
+
+    private void build(int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        select(from, to - 1, middle, depth % 2 == 0 ? latitudes : longitudes);
+        build(from, middle, depth + 1);
+        build(middle + 1, to, depth + 1);
+    }
+
+    /**
+     * Quickselect: reorders {@link #treeIndexes} between left and right (both inclusive)
+     * so the node at {@code n} has the nth smallest coordinate, with smaller or equal ones before it.
+     */
+    private void select(int left, int right, int n, double[] coordinates) {
+        while (left < right) {
+            double pivot = coordinates[treeIndexes[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinates[treeIndexes[i]] < pivot) {
+                    i++;
+                }
+                while (coordinates[treeIndexes[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = treeIndexes[i];
+                    treeIndexes[i] = treeIndexes[j];
+                    treeIndexes[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (n <= j) {
+                right = j;
+            } else if (n >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param location never null
+     * @param k {@code >= 0}
+     * @return never null, the {@code min(k, warehouseList.size())} nearest warehouses, nearest first
+     */
+    public Warehouse[] findNearestWarehouses(FlpLocation location, int k) {
+        Neighborhood neighborhood = new Neighborhood(Math.min(k, treeIndexes.length));
+        if (neighborhood.capacity > 0) {
+            search(location.getLatitude(), location.getLongitude(), 0, treeIndexes.length, 0, neighborhood);
+        }
+        return neighborhood.toSortedWarehouses();
+    }
+
+    private void search(double latitude, double longitude, int from, int to, int depth, Neighborhood neighborhood) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        int index = treeIndexes[middle];
+        double latitudeDifference = latitude - latitudes[index];
+        double longitudeDifference = longitude - longitudes[index];
+        neighborhood.offer(index,
+                (latitudeDifference * latitudeDifference) + (longitudeDifference * longitudeDifference));
+        double axisDifference = depth % 2 == 0 ? latitudeDifference : longitudeDifference;
+        // Search the side of the location first, so the other side is often pruned
+        if (axisDifference < 0.0) {
+            search(latitude, longitude, from, middle, depth + 1, neighborhood);
+            if (neighborhood.accepts(axisDifference * axisDifference)) {
+                search(latitude, longitude, middle + 1, to, depth + 1, neighborhood);
+            }
+        } else {
+            search(latitude, longitude, middle + 1, to, depth + 1, neighborhood);
+            if (neighborhood.accepts(axisDifference * axisDifference)) {
+                search(latitude, longitude, from, middle, depth + 1, neighborhood);
+            }
+        }
+    }
+
+    /**
+     * A max-heap of the nearest warehouses found so far, on the squared distance.
+     */
+    private class Neighborhood {
+
+        private final int capacity;
+        private final int[] indexes;
+        private final double[] squaredDistances;
+        private int size = 0;
+
+        private Neighborhood(int capacity) {
+            this.capacity = capacity;
+            indexes = new int[capacity];
+            squaredDistances = new double[capacity];
+        }
+
+        private boolean accepts(double squaredDistance) {
+            return size < capacity || squaredDistance < squaredDistances[0];
+        }
+
+        private void offer(int index, double squaredDistance) {
+            if (size < capacity) {
+                int child = size;
+                size++;
+                while (child > 0) {
+                    int parent = (child - 1) / 2;
+                    if (squaredDistances[parent] >= squaredDistance) {
+                        break;
+                    }
+                    indexes[child] = indexes[parent];
+                    squaredDistances[child] = squaredDistances[parent];
+                    child = parent;
+                }
+                indexes[child] = index;
+                squaredDistances[child] = squaredDistance;
+            } else if (squaredDistance < squaredDistances[0]) {
+                siftDown(index, squaredDistance, size);
+            }
+        }
+
+        private void siftDown(int index, double squaredDistance, int heapSize) {
+            int parent = 0;
+            while (true) {
+                int child = parent * 2 + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && squaredDistances[child + 1] > squaredDistances[child]) {
+                    child++;
+                }
+                if (squaredDistances[child] <= squaredDistance) {
+                    break;
+                }
+                indexes[parent] = indexes[child];
+                squaredDistances[parent] = squaredDistances[child];
+                parent = child;
+            }
+            indexes[parent] = index;
+            squaredDistances[parent] = squaredDistance;
+        }
+
+        private Warehouse[] toSortedWarehouses() {
+            Warehouse[] warehouses = new Warehouse[size];
+            // Pop the farthest first, to fill the result from the end
+            for (int heapSize = size; heapSize > 0; heapSize--) {
+                warehouses[heapSize - 1] = warehouseList.get(indexes[0]);
+                int lastIndex = indexes[heapSize - 1];
+                double lastSquaredDistance = squaredDistances[heapSize - 1];
+                siftDown(lastIndex, lastSquaredDistance, heapSize - 1);
+            }
+            return warehouses;
+        }
+
+    }
+
+}
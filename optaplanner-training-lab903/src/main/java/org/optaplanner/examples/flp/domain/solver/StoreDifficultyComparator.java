@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.domain.solver;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+import org.optaplanner.examples.flp.domain.Store;
+
+public class StoreDifficultyComparator implements Comparator<Store>, Serializable {
+
+    @Override
+    public int compare(Store a, Store b) {
+        // Assign stores with a higher demand first, while the warehouses still have capacity to choose from.
+        return Comparator
+                .comparingInt(Store::getDemand)
+                .thenComparing(Store::getId)
+                .compare(a, b);
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.examples.flp.domain.FlpLocation;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+import org.optaplanner.persistence.common.api.domain.solution.SolutionFileIO;
+
+/**
+ * A compact binary snapshot of a {@link FlpSolution}, including the warehouse of every store and the score,
+ * to load the same dataset quickly in repeated benchmark runs.
+ * It's not meant for archiving: the format changes with the domain and is rejected if its version differs.
+ * <p>
+ * Every warehouse and store id must be its index in its list, so a store refers to its warehouse by index.
+ */
+public class FlpBinarySolutionFileIO implements SolutionFileIO<FlpSolution> {
+
+    private static final String FILE_EXTENSION = "flpbin";
+    private static final int MAGIC_NUMBER = 0x464C5042; // "FLPB"
+    private static final int VERSION = 1;
+    private static final int NO_WAREHOUSE = -1;
+
+    @Override
+    public String getInputFileExtension() {
+        return FILE_EXTENSION;
+    }
+
+    @Override
+    public String getOutputFileExtension() {
+        return FILE_EXTENSION;
+    }
+
+    @Override
+    public FlpSolution read(File inputSolutionFile) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(inputSolutionFile.toPath()), 1 << 16))) {
+            int magicNumber = in.readInt();
+            if (magicNumber != MAGIC_NUMBER) {
+                throw new IllegalStateException("The magicNumber (" + Integer.toHexString(magicNumber)
+                        + ") is not the one of a " + FILE_EXTENSION + " file.");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("The version (" + version
+                        + ") is not the supported version (" + VERSION + ").");
+            }
+            FlpSolution solution = new FlpSolution();
+            solution.setId(in.readLong());
+            int warehouseListSize = in.readInt();
+            List<Warehouse> warehouseList = new ArrayList<>(warehouseListSize);
+            for (int i = 0; i < warehouseListSize; i++) {
+                Warehouse warehouse = new Warehouse();
+                warehouse.setId((long) i);
+                warehouse.setSetupCost(in.readLong());
+                warehouse.setCapacity(in.readInt());
+                warehouse.setLocation(readLocation(in));
+                warehouseList.add(warehouse);
+            }
+            solution.setWarehouseList(warehouseList);
+            int storeListSize = in.readInt();
+            List<Store> storeList = new ArrayList<>(storeListSize);
+            for (int i = 0; i < storeListSize; i++) {
+                Store store = new Store();
+                store.setId((long) i);
+                store.setDemand(in.readInt());
+                store.setLocation(readLocation(in));
+                int warehouseIndex = in.readInt();
+                store.setWarehouse(warehouseIndex == NO_WAREHOUSE ? null : warehouseList.get(warehouseIndex));
+                storeList.add(store);
+            }
+            solution.setStoreList(storeList);
+            if (in.readBoolean()) {
+                solution.setScore(HardSoftLongScore.valueOf(in.readInt(), in.readLong(), in.readLong()));
+            }
+            solution.initDistanceMatrix();
+            solution.initNearbyWarehouses(FlpSolution.NEARBY_WAREHOUSE_LIST_SIZE);
+            return solution;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Reading inputSolutionFile (" + inputSolutionFile + ") failed.", e);
+        }
+    }
+
+    private static FlpLocation readLocation(DataInputStream in) throws IOException {
+        double latitude = in.readDouble();
+        double longitude = in.readDouble();
+        return new FlpLocation(latitude, longitude);
+    }
+
+    @Override
+    public void write(FlpSolution solution, File outputSolutionFile) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(outputSolutionFile.toPath()), 1 << 16))) {
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(VERSION);
+            out.writeLong(solution.getId());
+            List<Warehouse> warehouseList = solution.getWarehouseList();
+            out.writeInt(warehouseList.size());
+            for (int i = 0; i < warehouseList.size(); i++) {
+                Warehouse warehouse = warehouseList.get(i);
+                if (warehouse.getId() != i) {
+                    throw new IllegalArgumentException("The warehouse (" + warehouse + ") has an id ("
+                            + warehouse.getId() + ") that differs from its index (" + i + ") in the warehouseList.");
+                }
+                out.writeLong(warehouse.getSetupCost());
+                out.writeInt(warehouse.getCapacity());
+                writeLocation(out, warehouse.getLocation());
+            }
+            List<Store> storeList = solution.getStoreList();
+            out.writeInt(storeList.size());
+            for (int i = 0; i < storeList.size(); i++) {
+                Store store = storeList.get(i);
+                if (store.getId() != i) {
+                    throw new IllegalArgumentException("The store (" + store + ") has an id ("
+                            + store.getId() + ") that differs from its index (" + i + ") in the storeList.");
+                }
+                out.writeInt(store.getDemand());
+                writeLocation(out, store.getLocation());
+                Warehouse warehouse = store.getWarehouse();
+                out.writeInt(warehouse == null ? NO_WAREHOUSE : warehouse.getId().intValue());
+            }
+            HardSoftLongScore score = solution.getScore();
+            out.writeBoolean(score != null);
+            if (score != null) {
+                out.writeInt(score.getInitScore());
+                out.writeLong(score.getHardScore());
+                out.writeLong(score.getSoftScore());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing outputSolutionFile (" + outputSolutionFile
+                    + ") for solution (" + solution + ") failed.", e);
+        }
+    }
+
+    private static void writeLocation(DataOutputStream out, FlpLocation location) throws IOException {
+        out.writeDouble(location.getLatitude());
+        out.writeDouble(location.getLongitude());
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.persistence;
+
+import java.io.File;
+
+import org.optaplanner.examples.common.persistence.XStreamSolutionDao;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+
+public class FlpDao extends XStreamSolutionDao<FlpSolution> {
+
+    public FlpDao() {
+        super("flp", FlpSolution.class);
+    }
+
+    @Override
+    public FlpSolution readSolution(File inputSolutionFile) {
+        FlpSolution solution = super.readSolution(inputSolutionFile);
+        solution.initDistanceMatrix();
+        solution.initNearbyWarehouses(FlpSolution.NEARBY_WAREHOUSE_LIST_SIZE);
+        return solution;
+    }
+
+}
@@ -17,17 +17,17 @@
 package org.optaplanner.examples.flp.persistence;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.optaplanner.core.api.domain.solution.Solution;
 import org.optaplanner.examples.common.persistence.AbstractTxtSolutionImporter;
 import org.optaplanner.examples.flp.domain.FlpLocation;
 import org.optaplanner.examples.flp.domain.FlpSolution;
 import org.optaplanner.examples.flp.domain.Store;
 import org.optaplanner.examples.flp.domain.Warehouse;
 
-public class FlpImporter extends AbstractTxtSolutionImporter {
+public class FlpImporter extends AbstractTxtSolutionImporter<FlpSolution> {
 
     private static final String INPUT_FILE_SUFFIX = "txt";
 
@@ -40,29 +40,49 @@ public class FlpImporter extends AbstractTxtSolutionImporter {
         return INPUT_FILE_SUFFIX;
     }
 
-    public TxtInputBuilder createTxtInputBuilder() {
+    @Override
+    public TxtInputBuilder<FlpSolution> createTxtInputBuilder() {
         return new FlpInputBuilder();
     }
 
-    public static class FlpInputBuilder extends TxtInputBuilder {
+    /**
+     * Every store can be assigned to any warehouse, so the search space is {@code warehouseListSize ^ storeListSize}.
+     * Same result as {@link #getFlooredPossibleSolutionSize(BigInteger)}, but without calculating a BigInteger
+     * of millions of bits for the largest instances, which takes longer than reading them.
+     * @param warehouseListSize {@code >= 1}
+     * @param storeListSize {@code >= 0}
+     * @return never null
+     */
+    public static String getFlooredSearchSpaceSize(int warehouseListSize, int storeListSize) {
+        double log10 = storeListSize * Math.log10(warehouseListSize);
+        if (log10 < 3.0) {
+            return BigInteger.valueOf(warehouseListSize).pow(storeListSize).toString();
+        }
+        return "10^" + (long) Math.floor(log10);
+    }
+
+    public static class FlpInputBuilder extends TxtInputBuilder<FlpSolution> {
 
         private FlpSolution solution;
 
         private int warehousesListSize;
         private int storesListSize;
 
+        @Override
         public FlpSolution readSolution() throws IOException {
             solution = new FlpSolution();
             solution.setId(0L);
             readHeaders();
             readWarehouseList();
             readStoreList();
+            solution.initDistanceMatrix();
+            solution.initNearbyWarehouses(FlpSolution.NEARBY_WAREHOUSE_LIST_SIZE);
 
-            // TODO Calculate the search space size
-            logger.info("FacultyPlacerSolution {} has {} warehouses and {} stores with a search space of TODO.",
+            logger.info("FlpSolution {} has {} warehouses and {} stores with a search space of {}.",
                     getInputId(),
                     solution.getWarehouseList().size(),
-                    solution.getStoreList().size());
+                    solution.getStoreList().size(),
+                    getFlooredSearchSpaceSize(solution.getWarehouseList().size(), solution.getStoreList().size()));
             return solution;
         }
 
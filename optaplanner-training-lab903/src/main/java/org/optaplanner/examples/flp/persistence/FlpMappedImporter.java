@@ -0,0 +1,280 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.optaplanner.examples.common.persistence.AbstractSolutionImporter;
+import org.optaplanner.examples.flp.domain.FlpLocation;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+
+/**
+ * Same file format and result as {@link FlpImporter}, but reads instances with hundreds of thousands of stores faster.
+ * <p>
+ * It memory maps the input file and parses its bytes straight into primitive arrays,
+ * so it creates no line strings, token arrays or boxed numbers.
+ * Only then it creates the {@link Warehouse}, {@link Store} and {@link FlpLocation} objects.
+ * Decimal numbers with up to 15 significant digits are parsed exactly, without a string,
+ * others fall back to {@link Double#parseDouble(String)}.
+ */
+public class FlpMappedImporter extends AbstractSolutionImporter<FlpSolution> {
+
+    private static final String INPUT_FILE_SUFFIX = "txt";
+
+    // Every power of 10 up to 10^22 is exactly representable as a double
+    private static final double[] POWERS_OF_TEN = new double[23];
+    // Below 2^53, every integer is exactly representable as a double
+    private static final long MAXIMUM_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    public FlpMappedImporter() {
+        super(true);
+    }
+
+    @Override
+    public String getInputFileSuffix() {
+        return INPUT_FILE_SUFFIX;
+    }
+
+    @Override
+    public FlpSolution readSolution(File inputFile) {
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("The inputFile size (" + size
+                        + ") is too big to map into a single buffer.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+            FlpSolution solution = new Tokenizer(buffer, (int) size).readSolution();
+            logger.info("FlpSolution {} has {} warehouses and {} stores with a search space of {}.",
+                    inputFile.getName(),
+                    solution.getWarehouseList().size(),
+                    solution.getStoreList().size(),
+                    FlpImporter.getFlooredSearchSpaceSize(
+                            solution.getWarehouseList().size(), solution.getStoreList().size()));
+            return solution;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Reading inputFile (" + inputFile + ") failed.", e);
+        }
+    }
+
+    private static class Tokenizer {
+
+        private final MappedByteBuffer buffer;
+        private final int size;
+        private int position = 0;
+        private int lineNumber = 1;
+
+        private Tokenizer(MappedByteBuffer buffer, int size) {
+            this.buffer = buffer;
+            this.size = size;
+        }
+
+        private FlpSolution readSolution() {
+            int warehouseListSize = readInt();
+            int storeListSize = readInt();
+
+            long[] setupCosts = new long[warehouseListSize];
+            int[] capacities = new int[warehouseListSize];
+            double[] warehouseLatitudes = new double[warehouseListSize];
+            double[] warehouseLongitudes = new double[warehouseListSize];
+            for (int i = 0; i < warehouseListSize; i++) {
+                // Avoid doubles by multiplying all numbers by 10000, exactly like FlpImporter
+                setupCosts[i] = (long) (readDouble() * 10000.0);
+                capacities[i] = readInt();
+                warehouseLongitudes[i] = readDouble();
+                warehouseLatitudes[i] = readDouble();
+            }
+            int[] demands = new int[storeListSize];
+            double[] storeLatitudes = new double[storeListSize];
+            double[] storeLongitudes = new double[storeListSize];
+            for (int i = 0; i < storeListSize; i++) {
+                demands[i] = readInt();
+                storeLongitudes[i] = readDouble();
+                storeLatitudes[i] = readDouble();
+            }
+            skipWhitespaceAndComments();
+            if (position < size) {
+                throw new IllegalStateException("The line (" + lineNumber + ") has more tokens than the "
+                        + warehouseListSize + " warehouses and " + storeListSize + " stores of the header.");
+            }
+
+            FlpSolution solution = new FlpSolution();
+            solution.setId(0L);
+            List<Warehouse> warehouseList = new ArrayList<>(warehouseListSize);
+            for (int i = 0; i < warehouseListSize; i++) {
+                Warehouse warehouse = new Warehouse();
+                warehouse.setId((long) i);
+                warehouse.setLocation(new FlpLocation(warehouseLatitudes[i], warehouseLongitudes[i]));
+                warehouse.setSetupCost(setupCosts[i]);
+                warehouse.setCapacity(capacities[i]);
+                warehouseList.add(warehouse);
+            }
+            solution.setWarehouseList(warehouseList);
+            List<Store> storeList = new ArrayList<>(storeListSize);
+            for (int i = 0; i < storeListSize; i++) {
+                Store store = new Store();
+                store.setId((long) i);
+                store.setLocation(new FlpLocation(storeLatitudes[i], storeLongitudes[i]));
+                store.setDemand(demands[i]);
+                storeList.add(store);
+            }
+            solution.setStoreList(storeList);
+            solution.initDistanceMatrix();
+            solution.initNearbyWarehouses(FlpSolution.NEARBY_WAREHOUSE_LIST_SIZE);
+            return solution;
+        }
+
+        /**
+         * Skips spaces, tabs, line breaks and {@code #} lines.
+         */
+        private void skipWhitespaceAndComments() {
+            boolean lineStart = position == 0;
+            while (position < size) {
+                byte b = buffer.get(position);
+                if (b == '\n') {
+                    lineNumber++;
+                    lineStart = true;
+                } else if (b == '#' && lineStart) {
+                    while (position < size && buffer.get(position) != '\n') {
+                        position++;
+                    }
+                    continue;
+                } else if (b != ' ' && b != '\t' && b != '\r') {
+                    return;
+                } else {
+                    lineStart = false;
+                }
+                position++;
+            }
+        }
+
+        /**
+         * @return the exclusive end of the next token
+         */
+        private int nextTokenEnd() {
+            skipWhitespaceAndComments();
+            if (position >= size) {
+                throw new IllegalStateException("The line (" + lineNumber + ") lacks a token: the file ends too early.");
+            }
+            int end = position;
+            while (end < size) {
+                byte b = buffer.get(end);
+                if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                    break;
+                }
+                end++;
+            }
+            return end;
+        }
+
+        private int readInt() {
+            int end = nextTokenEnd();
+            long value = 0L;
+            for (int i = position; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new IllegalStateException("The line (" + lineNumber + ") has an integer token ("
+                            + decode(position, end) + ") with a non digit.");
+                }
+                value = value * 10L + digit;
+                if (value > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("The line (" + lineNumber + ") has an integer token ("
+                            + decode(position, end) + ") that overflows.");
+                }
+            }
+            position = end;
+            return (int) value;
+        }
+
+        private double readDouble() {
+            int end = nextTokenEnd();
+            int i = position;
+            boolean negative = buffer.get(i) == '-';
+            if (negative) {
+                i++;
+            }
+            long mantissa = 0L;
+            int digitCount = 0;
+            int fractionDigitCount = 0;
+            boolean fraction = false;
+            boolean exact = i < end;
+            for (; i < end && exact; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && !fraction) {
+                    fraction = true;
+                    continue;
+                }
+                int digit = b - '0';
+                if (digit < 0 || digit > 9) {
+                    // For example an exponent, leave it to Double.parseDouble()
+                    exact = false;
+                    break;
+                }
+                mantissa = mantissa * 10L + digit;
+                digitCount++;
+                if (fraction) {
+                    fractionDigitCount++;
+                }
+                exact = digitCount <= 15 && fractionDigitCount < POWERS_OF_TEN.length;
+            }
+            double value;
+            if (exact && digitCount > 0 && mantissa < MAXIMUM_EXACT_MANTISSA) {
+                // Both operands are exact, so the division is correctly rounded, just like Double.parseDouble()
+                value = mantissa / POWERS_OF_TEN[fractionDigitCount];
+                if (negative) {
+                    value = -value;
+                }
+            } else {
+                String token = decode(position, end);
+                try {
+                    value = Double.parseDouble(token);
+                } catch (NumberFormatException e) {
+                    throw new IllegalStateException("The line (" + lineNumber + ") has a decimal token ("
+                            + token + ") that isn't a number.", e);
+                }
+            }
+            position = end;
+            return value;
+        }
+
+        private String decode(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+    }
+
+}
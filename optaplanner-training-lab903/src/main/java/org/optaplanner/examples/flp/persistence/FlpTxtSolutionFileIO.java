@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.persistence;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+import org.optaplanner.persistence.common.api.domain.solution.SolutionFileIO;
+
+/**
+ * Reads the {@code data/flp/import} text files directly, instead of converting them to XStream XML first.
+ * <p>
+ * The text format has no warehouse per store, so {@link #write(FlpSolution, File)} only writes the problem.
+ */
+public class FlpTxtSolutionFileIO implements SolutionFileIO<FlpSolution> {
+
+    private final FlpMappedImporter importer = new FlpMappedImporter();
+
+    @Override
+    public String getInputFileExtension() {
+        return importer.getInputFileSuffix();
+    }
+
+    @Override
+    public String getOutputFileExtension() {
+        return importer.getInputFileSuffix();
+    }
+
+    @Override
+    public FlpSolution read(File inputSolutionFile) {
+        return importer.readSolution(inputSolutionFile);
+    }
+
+    @Override
+    public void write(FlpSolution solution, File outputSolutionFile) {
+        List<Warehouse> warehouseList = solution.getWarehouseList();
+        List<Store> storeList = solution.getStoreList();
+        try (BufferedWriter writer = Files.newBufferedWriter(outputSolutionFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("# Written by " + getClass().getSimpleName() + "\n");
+            writer.write("# numberOfPotentialWarehouses numberOfStores\n");
+            writer.write(warehouseList.size() + " " + storeList.size() + "\n");
+            writer.write("# For each warehouse: setupCost capacity latitude longitude\n");
+            // Like in the imported files, the longitude comes before the latitude
+            for (Warehouse warehouse : warehouseList) {
+                writer.write(formatSetupCost(warehouse.getSetupCost()) + " " + warehouse.getCapacity() + " "
+                        + warehouse.getLocation().getLongitude() + " " + warehouse.getLocation().getLatitude() + "\n");
+            }
+            writer.write("# For each store: demand latitude longitude\n");
+            for (Store store : storeList) {
+                writer.write(store.getDemand() + " "
+                        + store.getLocation().getLongitude() + " " + store.getLocation().getLatitude() + "\n");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing outputSolutionFile (" + outputSolutionFile
+                    + ") for solution (" + solution + ") failed.", e);
+        }
+    }
+
+    /**
+     * The importers truncate the setup cost times 10000 to a long, which doesn't always survive a round trip
+     * of its exact decimal, so fall back to halfway between it and the next one.
+     * @param setupCost the setup cost times 10000
+     * @return never null, a decimal that the importers read as the same setupCost
+     */
+    private static String formatSetupCost(long setupCost) {
+        String exact = BigDecimal.valueOf(setupCost, 4).stripTrailingZeros().toPlainString();
+        if ((long) (Double.parseDouble(exact) * 10000.0) == setupCost) {
+            return exact;
+        }
+        return Double.toString((setupCost + 0.5) / 10000.0);
+    }
+
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.solver.bound;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calculates a lower bound of the setup and distance cost of every feasible solution of a {@link FlpSolution},
+ * so the soft score of a feasible solution is never better than minus that bound.
+ * <p>
+ * It relaxes the constraint that every store is assigned to exactly 1 warehouse with a multiplier per store.
+ * Without it, every warehouse is an independent continuous knapsack: take the stores whose distance is lower than
+ * their multiplier, most profit per demand first, until the capacity is full, and open the warehouse
+ * if that profit exceeds its setup cost. Any multipliers give a valid lower bound.
+ * Subgradient optimization raises the multipliers of unassigned stores and lowers those of stores assigned twice,
+ * to find a high one. Every few iterations, a greedy feasible solution based on the opened warehouses
+ * gives an upper bound to size the steps.
+ * <p>
+ * Every iteration scans all distances, so they are cached for the whole calculation
+ * (32 MB for 2000 warehouses and 2000 stores).
+ */
+public class FlpLagrangianLowerBoundCalculator {
+
+    public static final int DEFAULT_ITERATION_LIMIT = 300;
+
+    private static final int UPPER_BOUND_ITERATION_INTERVAL = 10;
+    private static final int UNIMPROVED_ITERATION_LIMIT = 20;
+    private static final double MINIMUM_STEP_FACTOR = 0.001;
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final int iterationLimit;
+
+    private int warehouseListSize;
+    private int storeListSize;
+    private long[] setupCosts;
+    private int[] capacities;
+    private int[] demands;
+    // costs[warehouseIndex * storeListSize + storeIndex], so every knapsack scans 1 row
+    private long[] costs;
+    private int[] storeIndexesByDemandDescending;
+
+    private double[] multipliers;
+    private double[] assignedFractions;
+    private boolean[] opened;
+    // Reused by every knapsack
+    private int[] candidateStoreIndexes;
+    private double[] candidateRatios;
+
+    public FlpLagrangianLowerBoundCalculator() {
+        this(DEFAULT_ITERATION_LIMIT);
+    }
+
+    /**
+     * @param iterationLimit {@code >= 1}, each iteration scans every distance once
+     */
+    public FlpLagrangianLowerBoundCalculator(int iterationLimit) {
+        if (iterationLimit < 1) {
+            throw new IllegalArgumentException("The iterationLimit (" + iterationLimit + ") must be at least 1.");
+        }
+        this.iterationLimit = iterationLimit;
+    }
+
+    /**
+     * Ignores the current warehouse of every store.
+     * @param solution never null
+     * @return {@code >= 0}, the setup and distance cost that no feasible solution can beat,
+     * so {@code -lowerBound} is the best soft score possible
+     */
+    public long calculateLowerBound(FlpSolution solution) {
+        long startNanos = System.nanoTime();
+        init(solution);
+        double upperBound = calculateUpperBound();
+        if (upperBound == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("The solution (" + solution
+                    + ") has no feasible solution, because the greedy assignment can't fit every store.");
+        }
+        double bestLowerBound = Double.NEGATIVE_INFINITY;
+        double stepFactor = 2.0;
+        int unimprovedIterationCount = 0;
+        int iterationCount = 0;
+        while (iterationCount < iterationLimit && stepFactor >= MINIMUM_STEP_FACTOR) {
+            double lowerBound = solveRelaxation();
+            iterationCount++;
+            if (lowerBound > bestLowerBound) {
+                bestLowerBound = lowerBound;
+                unimprovedIterationCount = 0;
+            } else if (++unimprovedIterationCount >= UNIMPROVED_ITERATION_LIMIT) {
+                stepFactor /= 2.0;
+                unimprovedIterationCount = 0;
+            }
+            if (iterationCount % UPPER_BOUND_ITERATION_INTERVAL == 0) {
+                upperBound = Math.min(upperBound, calculateUpperBound());
+            }
+            if (bestLowerBound >= upperBound - 1.0) {
+                break; // Proven optimal
+            }
+            double subgradientNormSquared = 0.0;
+            for (int j = 0; j < storeListSize; j++) {
+                double subgradient = 1.0 - assignedFractions[j];
+                subgradientNormSquared += subgradient * subgradient;
+            }
+            if (subgradientNormSquared == 0.0) {
+                break; // The relaxed solution is feasible, so the bound is optimal
+            }
+            double step = stepFactor * (upperBound - lowerBound) / subgradientNormSquared;
+            for (int j = 0; j < storeListSize; j++) {
+                multipliers[j] += step * (1.0 - assignedFractions[j]);
+            }
+        }
+        // Every cost is a long, so rounding down keeps the bound valid
+        long lowerBound = Math.max(0L, (long) Math.floor(bestLowerBound));
+        logger.debug("Lower bound ({}) and upper bound ({}) after {} iterations in {} ms.",
+                lowerBound, (long) upperBound, iterationCount, (System.nanoTime() - startNanos) / 1_000_000L);
+        return lowerBound;
+    }
+
+    private void init(FlpSolution solution) {
+        List<Warehouse> warehouseList = solution.getWarehouseList();
+        List<Store> storeList = solution.getStoreList();
+        warehouseListSize = warehouseList.size();
+        storeListSize = storeList.size();
+        long costCount = (long) warehouseListSize * storeListSize;
+        if (costCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The solution (" + solution + ") has too many distances ("
+                    + costCount + ") to cache.");
+        }
+        setupCosts = new long[warehouseListSize];
+        capacities = new int[warehouseListSize];
+        for (int i = 0; i < warehouseListSize; i++) {
+            setupCosts[i] = warehouseList.get(i).getSetupCost();
+            capacities[i] = warehouseList.get(i).getCapacity();
+        }
+        demands = new int[storeListSize];
+        for (int j = 0; j < storeListSize; j++) {
+            demands[j] = storeList.get(j).getDemand();
+        }
+        costs = new long[(int) costCount];
+        IntStream.range(0, warehouseListSize).parallel().forEach(i -> {
+            Warehouse warehouse = warehouseList.get(i);
+            int offset = i * storeListSize;
+            for (int j = 0; j < storeListSize; j++) {
+                costs[offset + j] = storeList.get(j).getLocation().getDistance(warehouse.getLocation());
+            }
+        });
+        storeIndexesByDemandDescending = IntStream.range(0, storeListSize).boxed()
+                .sorted((a, b) -> Integer.compare(demands[b], demands[a]))
+                .mapToInt(Integer::intValue).toArray();
+        // Start from the cheapest cost per store, with the setup cost shared by demand
+        multipliers = new double[storeListSize];
+        Arrays.fill(multipliers, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < warehouseListSize; i++) {
+            double setupCostPerDemand = (double) setupCosts[i] / capacities[i];
+            int offset = i * storeListSize;
+            for (int j = 0; j < storeListSize; j++) {
+                multipliers[j] = Math.min(multipliers[j], costs[offset + j] + setupCostPerDemand * demands[j]);
+            }
+        }
+        assignedFractions = new double[storeListSize];
+        opened = new boolean[warehouseListSize];
+        Arrays.fill(opened, true);
+        candidateStoreIndexes = new int[storeListSize];
+        candidateRatios = new double[storeListSize];
+    }
+
+    /**
+     * Solves the knapsack of every warehouse for the current multipliers.
+     * Fills {@link #assignedFractions} and {@link #opened}.
+     * @return the lower bound for the current multipliers
+     */
+    private double solveRelaxation() {
+        Arrays.fill(assignedFractions, 0.0);
+        double lowerBound = 0.0;
+        for (int j = 0; j < storeListSize; j++) {
+            lowerBound += multipliers[j];
+        }
+        for (int i = 0; i < warehouseListSize; i++) {
+            int offset = i * storeListSize;
+            int candidateCount = 0;
+            long candidateDemand = 0L;
+            for (int j = 0; j < storeListSize; j++) {
+                double reducedCost = costs[offset + j] - multipliers[j];
+                if (reducedCost < 0.0) {
+                    candidateStoreIndexes[candidateCount] = j;
+                    candidateRatios[candidateCount] = reducedCost / demands[j];
+                    candidateCount++;
+                    candidateDemand += demands[j];
+                }
+            }
+            if (candidateDemand > capacities[i]) {
+                sortByRatio(0, candidateCount - 1);
+            }
+            double value = setupCosts[i];
+            int remainingCapacity = capacities[i];
+            int takenCount = 0;
+            double lastFraction = 1.0;
+            for (; takenCount < candidateCount && remainingCapacity > 0; takenCount++) {
+                int j = candidateStoreIndexes[takenCount];
+                double reducedCost = costs[offset + j] - multipliers[j];
+                if (demands[j] <= remainingCapacity) {
+                    value += reducedCost;
+                    remainingCapacity -= demands[j];
+                } else {
+                    lastFraction = (double) remainingCapacity / demands[j];
+                    value += reducedCost * lastFraction;
+                    remainingCapacity = 0;
+                }
+            }
+            opened[i] = value < 0.0;
+            if (opened[i]) {
+                lowerBound += value;
+                for (int k = 0; k < takenCount; k++) {
+                    assignedFractions[candidateStoreIndexes[k]] += (k == takenCount - 1) ? lastFraction : 1.0;
+                }
+            }
+        }
+        return lowerBound;
+    }
+
+    /**
+     * Sorts the candidates by ratio ascending, so the most profit per demand first.
+     */
+    private void sortByRatio(int low, int high) {
+        while (high - low > 16) {
+            double pivot = candidateRatios[(low + high) >>> 1];
+            int left = low;
+            int right = high;
+            while (left <= right) {
+                while (candidateRatios[left] < pivot) {
+                    left++;
+                }
+                while (candidateRatios[right] > pivot) {
+                    right--;
+                }
+                if (left <= right) {
+                    swapCandidates(left++, right--);
+                }
+            }
+            // Recurse into the smaller part, to bound the stack depth
+            if (right - low < high - left) {
+                sortByRatio(low, right);
+                low = left;
+            } else {
+                sortByRatio(left, high);
+                high = right;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int k = i; k > low && candidateRatios[k - 1] > candidateRatios[k]; k--) {
+                swapCandidates(k - 1, k);
+            }
+        }
+    }
+
+    private void swapCandidates(int a, int b) {
+        double ratio = candidateRatios[a];
+        candidateRatios[a] = candidateRatios[b];
+        candidateRatios[b] = ratio;
+        int storeIndex = candidateStoreIndexes[a];
+        candidateStoreIndexes[a] = candidateStoreIndexes[b];
+        candidateStoreIndexes[b] = storeIndex;
+    }
+
+    /**
+     * Assigns the biggest store first to its nearest opened warehouse with enough remaining capacity.
+     * If there is none, it opens the closed warehouse with the lowest setup and distance cost that fits it.
+     * @return the cost of that feasible solution, {@link Double#POSITIVE_INFINITY} if a store doesn't fit anywhere
+     */
+    private double calculateUpperBound() {
+        boolean[] used = new boolean[warehouseListSize];
+        boolean[] available = opened.clone();
+        int[] remainingCapacities = capacities.clone();
+        long cost = 0L;
+        for (int j : storeIndexesByDemandDescending) {
+            int bestIndex = findCheapestWarehouseIndex(j, available, true, remainingCapacities);
+            if (bestIndex < 0) {
+                bestIndex = findCheapestWarehouseIndex(j, available, false, remainingCapacities);
+            }
+            if (bestIndex < 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            available[bestIndex] = true;
+            remainingCapacities[bestIndex] -= demands[j];
+            if (!used[bestIndex]) {
+                used[bestIndex] = true;
+                cost += setupCosts[bestIndex];
+            }
+            cost += costs[bestIndex * storeListSize + j];
+        }
+        return cost;
+    }
+
+    private int findCheapestWarehouseIndex(int storeIndex, boolean[] available, boolean availableFilter,
+            int[] remainingCapacities) {
+        int bestIndex = -1;
+        long bestCost = Long.MAX_VALUE;
+        for (int i = 0; i < warehouseListSize; i++) {
+            if (available[i] != availableFilter || remainingCapacities[i] < demands[storeIndex]) {
+                continue;
+            }
+            long assignCost = costs[i * storeListSize + storeIndex] + (availableFilter ? 0L : setupCosts[i]);
+            if (assignCost < bestCost) {
+                bestIndex = i;
+                bestCost = assignCost;
+            }
+        }
+        return bestIndex;
+    }
+
+    // ************************************************************************
+    // Gap
+    // ************************************************************************
+
+    /**
+     * @param lowerBound {@code >= 0}, see {@link #calculateLowerBound(FlpSolution)}
+     * @param gapPercentage {@code >= 0.0}, for example {@code 1.0} to accept a solution that costs 1% more
+     * @return never null, the feasible score that is at most {@code gapPercentage} worse than the lower bound,
+     * to use as the best score limit of the termination
+     */
+    public static HardSoftLongScore calculateBestScoreLimit(long lowerBound, double gapPercentage) {
+        if (gapPercentage < 0.0) {
+            throw new IllegalArgumentException("The gapPercentage (" + gapPercentage + ") can't be negative.");
+        }
+        return HardSoftLongScore.valueOf(0, 0L, -(long) Math.floor(lowerBound * (1.0 + gapPercentage / 100.0)));
+    }
+
+    /**
+     * @param lowerBound {@code >= 0}, see {@link #calculateLowerBound(FlpSolution)}
+     * @param score never null
+     * @return {@code >= 0.0}, how much more the score costs than the lower bound in percent,
+     * {@link Double#NaN} if the score is not initialized or not feasible,
+     * or if the lower bound is 0 and the score costs more, because no percentage of 0 covers that
+     */
+    public static double calculateGapPercentage(long lowerBound, HardSoftLongScore score) {
+        if (!score.isSolutionInitialized() || !score.isFeasible()) {
+            return Double.NaN;
+        }
+        long cost = -score.getSoftScore();
+        if (lowerBound <= 0L) {
+            return cost <= 0L ? 0.0 : Double.NaN;
+        }
+        return (cost - lowerBound) * 100.0 / lowerBound;
+    }
+
+}
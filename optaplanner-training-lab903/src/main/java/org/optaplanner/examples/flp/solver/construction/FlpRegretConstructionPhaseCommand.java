@@ -0,0 +1,240 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.solver.construction;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+import org.optaplanner.core.impl.phase.custom.AbstractCustomPhaseCommand;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+
+/**
+ * A construction heuristic that assigns the store with the highest regret first:
+ * the cost difference between its best and its second best warehouse that still has capacity for it.
+ * Stores that have only 1 such warehouse left are assigned before all others.
+ * First fit instead assigns every store in a fixed order, so the last stores often find their nearest warehouses full.
+ * <p>
+ * The cost of a warehouse for a store is the distance, plus a share of the setup cost proportional to the demand
+ * if the warehouse isn't used yet. Only the {@link Store#getNearbyWarehouseList() nearby warehouses} are candidates,
+ * unless none of them has capacity left. So a placement only changes the regret of the stores
+ * that have that warehouse nearby: those are recalculated, in parallel if there are many.
+ * <p>
+ * Stores that already have a warehouse are kept. A store that fits in no warehouse at all
+ * is assigned to its nearest one, which breaks a hard constraint.
+ * <p>
+ * The warehouse arrays are indexed by {@link Warehouse#getId()}, so it also works on a partition
+ * that only has some of the warehouses.
+ */
+public class FlpRegretConstructionPhaseCommand extends AbstractCustomPhaseCommand<FlpSolution> {
+
+    private static final int PARALLEL_STORE_COUNT_MINIMUM = 256;
+
+    private List<Warehouse> warehouseList;
+    private List<Store> storeList;
+    private Warehouse[] warehousesById;
+    private int[] remainingCapacities;
+    private boolean[] used;
+    // For every warehouse, the indexes of the stores that have it nearby
+    private int[][] nearbyStoreIndexes;
+
+    // For every unassigned store, calculated by updateRegret()
+    private int[] bestWarehouseIndexes;
+    private long[] regrets;
+    private int[] versions;
+
+    @Override
+    public void changeWorkingSolution(ScoreDirector<FlpSolution> scoreDirector) {
+        FlpSolution solution = scoreDirector.getWorkingSolution();
+        init(solution);
+        PriorityQueue<RegretEntry> queue = new PriorityQueue<>(storeList.size());
+        int[] unassignedStoreIndexes = IntStream.range(0, storeList.size())
+                .filter(j -> storeList.get(j).getWarehouse() == null).toArray();
+        updateRegrets(unassignedStoreIndexes, queue);
+        while (!queue.isEmpty()) {
+            RegretEntry entry = queue.poll();
+            int storeIndex = entry.storeIndex;
+            if (entry.version != versions[storeIndex]) {
+                continue; // Stale: the regret was recalculated or the store is already assigned
+            }
+            Store store = storeList.get(storeIndex);
+            int warehouseIndex = bestWarehouseIndexes[storeIndex];
+            if (warehouseIndex >= 0 && remainingCapacities[warehouseIndex] < store.getDemand()) {
+                // Stale: the best warehouse isn't nearby, so filling it up didn't recalculate this store
+                updateRegrets(new int[]{storeIndex}, queue);
+                continue;
+            }
+            versions[storeIndex]++;
+            if (warehouseIndex < 0) {
+                warehouseIndex = store.getNearbyWarehouseList().get(0).getId().intValue();
+            }
+            Warehouse warehouse = warehousesById[warehouseIndex];
+            scoreDirector.beforeVariableChanged(store, "warehouse");
+            store.setWarehouse(warehouse);
+            scoreDirector.afterVariableChanged(store, "warehouse");
+            scoreDirector.triggerVariableListeners();
+            remainingCapacities[warehouseIndex] -= store.getDemand();
+            used[warehouseIndex] = true;
+            int[] affectedStoreIndexes = IntStream.of(nearbyStoreIndexes[warehouseIndex])
+                    .filter(j -> storeList.get(j).getWarehouse() == null).toArray();
+            updateRegrets(affectedStoreIndexes, queue);
+        }
+    }
+
+    private void init(FlpSolution solution) {
+        warehouseList = solution.getWarehouseList();
+        storeList = solution.getStoreList();
+        int idCount = warehouseList.stream().mapToInt(warehouse -> warehouse.getId().intValue() + 1).max().orElse(0);
+        warehousesById = new Warehouse[idCount];
+        remainingCapacities = new int[idCount];
+        used = new boolean[idCount];
+        for (Warehouse warehouse : warehouseList) {
+            int i = warehouse.getId().intValue();
+            warehousesById[i] = warehouse;
+            remainingCapacities[i] = warehouse.getCapacity();
+        }
+        int[] nearbyStoreCounts = new int[idCount];
+        for (Store store : storeList) {
+            if (store.getNearbyWarehouseList() == null) {
+                throw new IllegalStateException("The store (" + store + ") has no nearbyWarehouseList:"
+                        + " call " + FlpSolution.class.getSimpleName() + ".initNearbyWarehouses() after loading.");
+            }
+            for (Warehouse warehouse : store.getNearbyWarehouseList()) {
+                nearbyStoreCounts[warehouse.getId().intValue()]++;
+            }
+            Warehouse warehouse = store.getWarehouse();
+            if (warehouse != null) {
+                remainingCapacities[warehouse.getId().intValue()] -= store.getDemand();
+                used[warehouse.getId().intValue()] = true;
+            }
+        }
+        nearbyStoreIndexes = new int[idCount][];
+        for (int i = 0; i < idCount; i++) {
+            nearbyStoreIndexes[i] = new int[nearbyStoreCounts[i]];
+            nearbyStoreCounts[i] = 0;
+        }
+        for (int j = 0; j < storeList.size(); j++) {
+            for (Warehouse warehouse : storeList.get(j).getNearbyWarehouseList()) {
+                int i = warehouse.getId().intValue();
+                nearbyStoreIndexes[i][nearbyStoreCounts[i]++] = j;
+            }
+        }
+        bestWarehouseIndexes = new int[storeList.size()];
+        regrets = new long[storeList.size()];
+        versions = new int[storeList.size()];
+    }
+
+    private void updateRegrets(int[] storeIndexes, PriorityQueue<RegretEntry> queue) {
+        IntStream storeIndexStream = IntStream.of(storeIndexes);
+        if (storeIndexes.length >= PARALLEL_STORE_COUNT_MINIMUM) {
+            storeIndexStream = storeIndexStream.parallel();
+        }
+        storeIndexStream.forEach(this::updateRegret);
+        for (int j : storeIndexes) {
+            versions[j]++;
+            queue.add(new RegretEntry(j, regrets[j], storeList.get(j).getDemand(), versions[j]));
+        }
+    }
+
+    /**
+     * Only writes the index of the store in {@link #bestWarehouseIndexes} and {@link #regrets},
+     * so it's thread-safe for different stores.
+     */
+    private void updateRegret(int storeIndex) {
+        Store store = storeList.get(storeIndex);
+        long bestCost = Long.MAX_VALUE;
+        long secondBestCost = Long.MAX_VALUE;
+        int bestWarehouseIndex = -1;
+        for (Warehouse warehouse : store.getNearbyWarehouseList()) {
+            long cost = calculateCost(store, warehouse);
+            if (cost < secondBestCost) {
+                if (cost < bestCost) {
+                    secondBestCost = bestCost;
+                    bestCost = cost;
+                    bestWarehouseIndex = warehouse.getId().intValue();
+                } else {
+                    secondBestCost = cost;
+                }
+            }
+        }
+        if (secondBestCost == Long.MAX_VALUE) {
+            // Fewer than 2 nearby warehouses have capacity left, so look further
+            for (Warehouse warehouse : warehouseList) {
+                long cost = calculateCost(store, warehouse);
+                if (cost < secondBestCost && warehouse.getId() != bestWarehouseIndex) {
+                    if (cost < bestCost) {
+                        secondBestCost = bestCost;
+                        bestCost = cost;
+                        bestWarehouseIndex = warehouse.getId().intValue();
+                    } else {
+                        secondBestCost = cost;
+                    }
+                }
+            }
+        }
+        bestWarehouseIndexes[storeIndex] = bestWarehouseIndex;
+        // A store with 1 or 0 options left can't wait
+        regrets[storeIndex] = secondBestCost == Long.MAX_VALUE ? Long.MAX_VALUE : secondBestCost - bestCost;
+    }
+
+    /**
+     * @return {@link Long#MAX_VALUE} if the store doesn't fit in the remaining capacity of the warehouse
+     */
+    private long calculateCost(Store store, Warehouse warehouse) {
+        int i = warehouse.getId().intValue();
+        if (remainingCapacities[i] < store.getDemand()) {
+            return Long.MAX_VALUE;
+        }
+        long cost = store.getLocation().getDistance(warehouse.getLocation());
+        if (!used[i]) {
+            cost += warehouse.getSetupCost() * store.getDemand() / warehouse.getCapacity();
+        }
+        return cost;
+    }
+
+    private static final class RegretEntry implements Comparable<RegretEntry> {
+
+        private final int storeIndex;
+        private final long regret;
+        private final int demand;
+        private final int version;
+
+        private RegretEntry(int storeIndex, long regret, int demand, int version) {
+            this.storeIndex = storeIndex;
+            this.regret = regret;
+            this.demand = demand;
+            this.version = version;
+        }
+
+        @Override
+        public int compareTo(RegretEntry other) {
+            // Highest regret first, then highest demand first
+            if (regret != other.regret) {
+                return Long.compare(other.regret, regret);
+            }
+            if (demand != other.demand) {
+                return Integer.compare(other.demand, demand);
+            }
+            return Integer.compare(storeIndex, other.storeIndex);
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.solver.move;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+import org.optaplanner.core.impl.heuristic.move.AbstractMove;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+
+/**
+ * Changes the warehouse of multiple stores at once, for example to close or open a warehouse,
+ * so the score is only calculated for the end result, not for every intermediate single store change.
+ * <p>
+ * The undo move is the same stores with their warehouses from before the move,
+ * so undoing costs as much as doing: 1 variable change per store.
+ */
+public class CompoundStoreChangeMove extends AbstractMove {
+
+    private final Store[] stores;
+    private final Warehouse[] toWarehouses;
+
+    /**
+     * @param stores never null, without duplicates
+     * @param toWarehouses never null, same length as stores
+     */
+    public CompoundStoreChangeMove(Store[] stores, Warehouse[] toWarehouses) {
+        if (stores.length != toWarehouses.length) {
+            throw new IllegalArgumentException("The stores length (" + stores.length
+                    + ") differs from the toWarehouses length (" + toWarehouses.length + ").");
+        }
+        this.stores = stores;
+        this.toWarehouses = toWarehouses;
+    }
+
+    public Store[] getStores() {
+        return stores;
+    }
+
+    public Warehouse[] getToWarehouses() {
+        return toWarehouses;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector scoreDirector) {
+        for (int i = 0; i < stores.length; i++) {
+            if (stores[i].getWarehouse() != toWarehouses[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public CompoundStoreChangeMove createUndoMove(ScoreDirector scoreDirector) {
+        Warehouse[] fromWarehouses = new Warehouse[stores.length];
+        for (int i = 0; i < stores.length; i++) {
+            fromWarehouses[i] = stores[i].getWarehouse();
+        }
+        return new CompoundStoreChangeMove(stores, fromWarehouses);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector scoreDirector) {
+        for (int i = 0; i < stores.length; i++) {
+            Store store = stores[i];
+            if (store.getWarehouse() != toWarehouses[i]) {
+                scoreDirector.beforeVariableChanged(store, "warehouse");
+                store.setWarehouse(toWarehouses[i]);
+                scoreDirector.afterVariableChanged(store, "warehouse");
+            }
+        }
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningEntities() {
+        return Arrays.asList(stores);
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningValues() {
+        // Without duplicates, many stores move to the same warehouse
+        return new LinkedHashSet<>(Arrays.asList(toWarehouses));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o instanceof CompoundStoreChangeMove) {
+            CompoundStoreChangeMove other = (CompoundStoreChangeMove) o;
+            return Arrays.equals(stores, other.stores)
+                    && Arrays.equals(toWarehouses, other.toWarehouses);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(stores) + Arrays.hashCode(toWarehouses);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < stores.length; i++) {
+            if (i > 0) {
+                s.append(", ");
+            }
+            s.append(stores[i]).append(" {").append(stores[i].getWarehouse()).append(" -> ")
+                    .append(toWarehouses[i]).append("}");
+        }
+        return s.toString();
+    }
+
+}
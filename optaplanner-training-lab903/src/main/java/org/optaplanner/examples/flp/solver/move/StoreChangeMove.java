@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.solver.move;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+
+import org.optaplanner.core.impl.heuristic.move.AbstractMove;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+
+public class StoreChangeMove extends AbstractMove {
+
+    private final Store store;
+    private final Warehouse toWarehouse;
+
+    public StoreChangeMove(Store store, Warehouse toWarehouse) {
+        this.store = store;
+        this.toWarehouse = toWarehouse;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    public Warehouse getToWarehouse() {
+        return toWarehouse;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector scoreDirector) {
+        return store.getWarehouse() != toWarehouse;
+    }
+
+    @Override
+    public StoreChangeMove createUndoMove(ScoreDirector scoreDirector) {
+        return new StoreChangeMove(store, store.getWarehouse());
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector scoreDirector) {
+        scoreDirector.beforeVariableChanged(store, "warehouse");
+        store.setWarehouse(toWarehouse);
+        scoreDirector.afterVariableChanged(store, "warehouse");
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningEntities() {
+        return Collections.singletonList(store);
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningValues() {
+        return Collections.singletonList(toWarehouse);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o instanceof StoreChangeMove) {
+            StoreChangeMove other = (StoreChangeMove) o;
+            return store == other.store
+                    && toWarehouse == other.toWarehouse;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(store, toWarehouse);
+    }
+
+    @Override
+    public String toString() {
+        return store + " {" + store.getWarehouse() + " -> " + toWarehouse + "}";
+    }
+
+}
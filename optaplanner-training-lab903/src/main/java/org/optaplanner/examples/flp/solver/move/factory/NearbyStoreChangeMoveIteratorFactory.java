@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.solver.move.factory;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+import org.optaplanner.examples.flp.domain.distance.WarehouseKdTree;
+import org.optaplanner.examples.flp.solver.move.StoreChangeMove;
+
+/**
+ * Only moves a store to 1 of its {@link Store#getNearbyWarehouseList() nearby warehouses},
+ * which {@link FlpSolution#initNearbyWarehouses(int)} finds with a {@link WarehouseKdTree} after loading.
+ * A random change move to 1 of hundreds of warehouses is rarely to a nearby one, so it rarely improves the score.
+ * <p>
+ * Unlike a {@code <nearbySelection>}, which sorts all warehouses for every store,
+ * this doesn't need a store by warehouse matrix.
+ * Combine it with a normal change move selector, to reach the far warehouses too.
+ */
+public class NearbyStoreChangeMoveIteratorFactory implements MoveIteratorFactory<FlpSolution> {
+
+    @Override
+    public long getSize(ScoreDirector<FlpSolution> scoreDirector) {
+        return scoreDirector.getWorkingSolution().getStoreList().stream()
+                .mapToLong((store) -> store.getNearbyWarehouseList().size()).sum();
+    }
+
+    @Override
+    public Iterator<Move> createOriginalMoveIterator(ScoreDirector<FlpSolution> scoreDirector) {
+        return new OriginalNearbyChangeMoveIterator(scoreDirector.getWorkingSolution().getStoreList());
+    }
+
+    @Override
+    public Iterator<Move> createRandomMoveIterator(ScoreDirector<FlpSolution> scoreDirector, Random workingRandom) {
+        return new RandomNearbyChangeMoveIterator(scoreDirector.getWorkingSolution().getStoreList(), workingRandom);
+    }
+
+    private static class OriginalNearbyChangeMoveIterator implements Iterator<Move> {
+
+        private final List<Store> storeList;
+
+        private int storeIndex = 0;
+        private int nearbyIndex = 0;
+
+        public OriginalNearbyChangeMoveIterator(List<Store> storeList) {
+            this.storeList = storeList;
+            skipStoresWithoutNearbyWarehouses();
+        }
+
+        private void skipStoresWithoutNearbyWarehouses() {
+            while (storeIndex < storeList.size() && storeList.get(storeIndex).getNearbyWarehouseList().isEmpty()) {
+                storeIndex++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return storeIndex < storeList.size();
+        }
+
+        @Override
+        public Move next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Store store = storeList.get(storeIndex);
+            List<Warehouse> nearbyWarehouseList = store.getNearbyWarehouseList();
+            Move move = new StoreChangeMove(store, nearbyWarehouseList.get(nearbyIndex));
+            nearbyIndex++;
+            if (nearbyIndex >= nearbyWarehouseList.size()) {
+                nearbyIndex = 0;
+                storeIndex++;
+                skipStoresWithoutNearbyWarehouses();
+            }
+            return move;
+        }
+
+    }
+
+    private static class RandomNearbyChangeMoveIterator implements Iterator<Move> {
+
+        private final List<Store> storeList;
+        private final Random workingRandom;
+
+        public RandomNearbyChangeMoveIterator(List<Store> storeList, Random workingRandom) {
+            this.storeList = storeList;
+            this.workingRandom = workingRandom;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !storeList.isEmpty();
+        }
+
+        @Override
+        public Move next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Store store = storeList.get(workingRandom.nextInt(storeList.size()));
+            List<Warehouse> nearbyWarehouseList = store.getNearbyWarehouseList();
+            // Parabolic distribution: the nearest warehouse is the most likely, the farthest nearby one hardly ever
+            int nearbyIndex = (int) (nearbyWarehouseList.size()
+                    * (1.0 - Math.pow(1.0 - workingRandom.nextDouble(), 1.0 / 3.0)));
+            Warehouse toWarehouse = nearbyWarehouseList.get(nearbyIndex);
+            return new StoreChangeMove(store, toWarehouse);
+        }
+
+    }
+
+}
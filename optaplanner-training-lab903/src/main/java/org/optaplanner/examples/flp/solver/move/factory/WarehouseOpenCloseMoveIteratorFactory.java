@@ -0,0 +1,320 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.solver.move.factory;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+import org.optaplanner.examples.flp.solver.move.CompoundStoreChangeMove;
+import org.optaplanner.examples.flp.solver.move.StoreChangeMove;
+
+/**
+ * Closes an open warehouse or opens a closed one in 1 {@link CompoundStoreChangeMove}.
+ * With {@link StoreChangeMove}s, closing a warehouse takes 1 move per store,
+ * and each one before the last costs more, because the setup cost is only saved when the warehouse is empty.
+ * <ul>
+ * <li>A close move reassigns every store of the warehouse to its nearest other open warehouse
+ * that still has capacity for it, biggest demand first.</li>
+ * <li>An open move pulls in the stores that have the warehouse {@link Store#getNearbyWarehouseList() nearby}
+ * and are farther from their current warehouse, the biggest distance saving first, as long as they fit.</li>
+ * </ul>
+ * The used demand and the stores of every warehouse are gathered once per step, on the first move of that step,
+ * because every evaluated move is undone before the next one is created.
+ * Like the score calculator, the arrays are indexed by {@link Warehouse#getId()}.
+ */
+public class WarehouseOpenCloseMoveIteratorFactory implements MoveIteratorFactory<FlpSolution> {
+
+    // Only depends on the problem facts, so it's calculated once per working solution
+    private List<Store> cachedStoreList = null;
+    private int[][] cachedNearbyStoreIndexes = null;
+
+    @Override
+    public long getSize(ScoreDirector<FlpSolution> scoreDirector) {
+        return scoreDirector.getWorkingSolution().getWarehouseList().size();
+    }
+
+    @Override
+    public Iterator<Move> createOriginalMoveIterator(ScoreDirector<FlpSolution> scoreDirector) {
+        FlpSolution solution = scoreDirector.getWorkingSolution();
+        return new OriginalWarehouseOpenCloseMoveIterator(solution, findNearbyStoreIndexes(solution));
+    }
+
+    @Override
+    public Iterator<Move> createRandomMoveIterator(ScoreDirector<FlpSolution> scoreDirector, Random workingRandom) {
+        FlpSolution solution = scoreDirector.getWorkingSolution();
+        return new RandomWarehouseOpenCloseMoveIterator(solution, findNearbyStoreIndexes(solution), workingRandom);
+    }
+
+    /**
+     * @return never null, for every warehouse id, the indexes of the stores that have it nearby
+     */
+    private int[][] findNearbyStoreIndexes(FlpSolution solution) {
+        List<Store> storeList = solution.getStoreList();
+        if (storeList == cachedStoreList) {
+            return cachedNearbyStoreIndexes;
+        }
+        int idCount = calculateIdCount(solution.getWarehouseList());
+        int[] nearbyStoreCounts = new int[idCount];
+        for (Store store : storeList) {
+            for (Warehouse warehouse : store.getNearbyWarehouseList()) {
+                nearbyStoreCounts[warehouse.getId().intValue()]++;
+            }
+        }
+        int[][] nearbyStoreIndexes = new int[idCount][];
+        for (int i = 0; i < idCount; i++) {
+            nearbyStoreIndexes[i] = new int[nearbyStoreCounts[i]];
+            nearbyStoreCounts[i] = 0;
+        }
+        for (int j = 0; j < storeList.size(); j++) {
+            for (Warehouse warehouse : storeList.get(j).getNearbyWarehouseList()) {
+                int i = warehouse.getId().intValue();
+                nearbyStoreIndexes[i][nearbyStoreCounts[i]++] = j;
+            }
+        }
+        cachedStoreList = storeList;
+        cachedNearbyStoreIndexes = nearbyStoreIndexes;
+        return nearbyStoreIndexes;
+    }
+
+    private static int calculateIdCount(List<Warehouse> warehouseList) {
+        return warehouseList.stream().mapToInt(warehouse -> warehouse.getId().intValue() + 1).max().orElse(0);
+    }
+
+    /**
+     * Creates the moves for the working solution as it is at the start of a step.
+     */
+    private static class WarehouseOpenCloseMoveBuilder {
+
+        private static final CompoundStoreChangeMove NOT_DOABLE_MOVE
+                = new CompoundStoreChangeMove(new Store[0], new Warehouse[0]);
+
+        private final List<Store> storeList;
+        private final List<Warehouse> warehouseList;
+        private final int[][] nearbyStoreIndexes;
+
+        // Gathered on the first move, indexed by warehouse id
+        private int[] usedDemands = null;
+        private int[][] storeIndexesByWarehouse;
+
+        public WarehouseOpenCloseMoveBuilder(FlpSolution solution, int[][] nearbyStoreIndexes) {
+            this.storeList = solution.getStoreList();
+            this.warehouseList = solution.getWarehouseList();
+            this.nearbyStoreIndexes = nearbyStoreIndexes;
+        }
+
+        private void gather() {
+            int idCount = nearbyStoreIndexes.length;
+            usedDemands = new int[idCount];
+            int[] storeCounts = new int[idCount];
+            for (Store store : storeList) {
+                Warehouse warehouse = store.getWarehouse();
+                if (warehouse != null) {
+                    int i = warehouse.getId().intValue();
+                    usedDemands[i] += store.getDemand();
+                    storeCounts[i]++;
+                }
+            }
+            storeIndexesByWarehouse = new int[idCount][];
+            for (int i = 0; i < idCount; i++) {
+                storeIndexesByWarehouse[i] = new int[storeCounts[i]];
+                storeCounts[i] = 0;
+            }
+            for (int j = 0; j < storeList.size(); j++) {
+                Warehouse warehouse = storeList.get(j).getWarehouse();
+                if (warehouse != null) {
+                    int i = warehouse.getId().intValue();
+                    storeIndexesByWarehouse[i][storeCounts[i]++] = j;
+                }
+            }
+        }
+
+        /**
+         * @param warehouse never null
+         * @return never null, a close move if the warehouse is open, otherwise an open move.
+         * Not doable if no store can be moved.
+         */
+        public CompoundStoreChangeMove createMove(Warehouse warehouse) {
+            if (usedDemands == null) {
+                gather();
+            }
+            int[] storeIndexes = storeIndexesByWarehouse[warehouse.getId().intValue()];
+            return storeIndexes.length > 0 ? createCloseMove(warehouse, storeIndexes) : createOpenMove(warehouse);
+        }
+
+        private CompoundStoreChangeMove createCloseMove(Warehouse closingWarehouse, int[] storeIndexes) {
+            Store[] stores = Arrays.stream(storeIndexes).mapToObj(storeList::get)
+                    .sorted(Comparator.comparingInt(Store::getDemand).reversed())
+                    .toArray(Store[]::new);
+            Warehouse[] toWarehouses = new Warehouse[stores.length];
+            for (int i = 0; i < stores.length; i++) {
+                Warehouse toWarehouse = findNearestOpenWarehouse(stores[i], closingWarehouse);
+                if (toWarehouse == null) {
+                    // Revert the demand reserved so far
+                    for (int k = 0; k < i; k++) {
+                        usedDemands[toWarehouses[k].getId().intValue()] -= stores[k].getDemand();
+                    }
+                    return NOT_DOABLE_MOVE;
+                }
+                toWarehouses[i] = toWarehouse;
+                // Reserve the capacity for the next stores of this move
+                usedDemands[toWarehouse.getId().intValue()] += stores[i].getDemand();
+            }
+            for (int i = 0; i < stores.length; i++) {
+                usedDemands[toWarehouses[i].getId().intValue()] -= stores[i].getDemand();
+            }
+            return new CompoundStoreChangeMove(stores, toWarehouses);
+        }
+
+        /**
+         * @return null if no other open warehouse has enough capacity left
+         */
+        private Warehouse findNearestOpenWarehouse(Store store, Warehouse closingWarehouse) {
+            for (Warehouse warehouse : store.getNearbyWarehouseList()) {
+                if (warehouse != closingWarehouse && isOpenWithCapacity(warehouse, store.getDemand())) {
+                    return warehouse;
+                }
+            }
+            // None of the nearby warehouses qualifies, so look further
+            Warehouse nearestWarehouse = null;
+            long nearestDistance = Long.MAX_VALUE;
+            for (Warehouse warehouse : warehouseList) {
+                if (warehouse != closingWarehouse && isOpenWithCapacity(warehouse, store.getDemand())) {
+                    long distance = store.getLocation().getDistance(warehouse.getLocation());
+                    if (distance < nearestDistance) {
+                        nearestDistance = distance;
+                        nearestWarehouse = warehouse;
+                    }
+                }
+            }
+            return nearestWarehouse;
+        }
+
+        private boolean isOpenWithCapacity(Warehouse warehouse, int demand) {
+            int i = warehouse.getId().intValue();
+            return storeIndexesByWarehouse[i].length > 0 && usedDemands[i] + demand <= warehouse.getCapacity();
+        }
+
+        private CompoundStoreChangeMove createOpenMove(Warehouse openingWarehouse) {
+            int[] candidateIndexes = nearbyStoreIndexes[openingWarehouse.getId().intValue()];
+            Store[] candidates = new Store[candidateIndexes.length];
+            long[] savings = new long[candidateIndexes.length];
+            int candidateCount = 0;
+            for (int j : candidateIndexes) {
+                Store store = storeList.get(j);
+                if (store.getWarehouse() == null) {
+                    continue;
+                }
+                long saving = store.getDistanceToWarehouse()
+                        - store.getLocation().getDistance(openingWarehouse.getLocation());
+                if (saving > 0L) {
+                    candidates[candidateCount] = store;
+                    savings[candidateCount] = saving;
+                    candidateCount++;
+                }
+            }
+            // Biggest saving first
+            Integer[] order = new Integer[candidateCount];
+            for (int k = 0; k < candidateCount; k++) {
+                order[k] = k;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(savings[b], savings[a]));
+            Store[] stores = new Store[candidateCount];
+            int storeCount = 0;
+            int remainingCapacity = openingWarehouse.getCapacity();
+            for (int k : order) {
+                Store store = candidates[k];
+                if (store.getDemand() <= remainingCapacity) {
+                    stores[storeCount++] = store;
+                    remainingCapacity -= store.getDemand();
+                }
+            }
+            if (storeCount == 0) {
+                return NOT_DOABLE_MOVE;
+            }
+            Warehouse[] toWarehouses = new Warehouse[storeCount];
+            Arrays.fill(toWarehouses, openingWarehouse);
+            return new CompoundStoreChangeMove(Arrays.copyOf(stores, storeCount), toWarehouses);
+        }
+
+    }
+
+    private static class OriginalWarehouseOpenCloseMoveIterator implements Iterator<Move> {
+
+        private final List<Warehouse> warehouseList;
+        private final WarehouseOpenCloseMoveBuilder moveBuilder;
+
+        private int warehouseIndex = 0;
+
+        public OriginalWarehouseOpenCloseMoveIterator(FlpSolution solution, int[][] nearbyStoreIndexes) {
+            this.warehouseList = solution.getWarehouseList();
+            this.moveBuilder = new WarehouseOpenCloseMoveBuilder(solution, nearbyStoreIndexes);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return warehouseIndex < warehouseList.size();
+        }
+
+        @Override
+        public Move next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return moveBuilder.createMove(warehouseList.get(warehouseIndex++));
+        }
+
+    }
+
+    private static class RandomWarehouseOpenCloseMoveIterator implements Iterator<Move> {
+
+        private final List<Warehouse> warehouseList;
+        private final WarehouseOpenCloseMoveBuilder moveBuilder;
+        private final Random workingRandom;
+
+        public RandomWarehouseOpenCloseMoveIterator(FlpSolution solution, int[][] nearbyStoreIndexes,
+                Random workingRandom) {
+            this.warehouseList = solution.getWarehouseList();
+            this.moveBuilder = new WarehouseOpenCloseMoveBuilder(solution, nearbyStoreIndexes);
+            this.workingRandom = workingRandom;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !warehouseList.isEmpty();
+        }
+
+        @Override
+        public Move next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return moveBuilder.createMove(warehouseList.get(workingRandom.nextInt(warehouseList.size())));
+        }
+
+    }
+
+}
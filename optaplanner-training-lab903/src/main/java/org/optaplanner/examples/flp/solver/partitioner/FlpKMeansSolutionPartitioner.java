@@ -0,0 +1,260 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.solver.partitioner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.optaplanner.core.impl.partitionedsearch.partitioner.SolutionPartitioner;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaplanner.examples.flp.domain.FlpLocation;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+
+/**
+ * Splits the stores into geographic clusters of about {@link #PARTITION_STORE_COUNT} stores
+ * with k-means on their {@link FlpLocation} coordinates, so the partitions can be solved concurrently.
+ * Every warehouse belongs to the partition with the nearest centroid.
+ * <p>
+ * A partition only solves well if its warehouses can hold its demand,
+ * so partitions that lack capacity take the nearest warehouses of partitions that can spare them.
+ * If that isn't enough, it retries with fewer partitions.
+ * <p>
+ * The partitions don't share warehouses, so the stores near a border only see the warehouses of their own partition.
+ * Follow the partitioned search with a local search over the whole solution to repair those borders.
+ */
+public class FlpKMeansSolutionPartitioner implements SolutionPartitioner<FlpSolution> {
+
+    public static final int PARTITION_STORE_COUNT = 500;
+
+    private static final int MAXIMUM_ITERATION_COUNT = 100;
+    // Unless the whole instance has less spare capacity, every partition gets 10% more capacity than demand
+    private static final double MAXIMUM_CAPACITY_MARGIN = 1.1;
+
+    @Override
+    public List<FlpSolution> splitWorkingSolution(ScoreDirector<FlpSolution> scoreDirector) {
+        FlpSolution solution = scoreDirector.getWorkingSolution();
+        List<Store> storeList = solution.getStoreList();
+        List<Warehouse> warehouseList = solution.getWarehouseList();
+        long totalDemand = storeList.stream().mapToLong(Store::getDemand).sum();
+        long totalCapacity = warehouseList.stream().mapToLong(Warehouse::getCapacity).sum();
+        double capacityMargin = Math.min(MAXIMUM_CAPACITY_MARGIN, (double) totalCapacity / Math.max(totalDemand, 1L));
+        int partitionCount = Math.min(Math.max(1, storeList.size() / PARTITION_STORE_COUNT), warehouseList.size());
+        while (true) {
+            Random random = new Random(37);
+            double[][] centroids = clusterStores(storeList, partitionCount, random);
+            int[] storePartitions = new int[storeList.size()];
+            for (int j = 0; j < storeList.size(); j++) {
+                storePartitions[j] = findNearestCentroid(centroids, storeList.get(j).getLocation());
+            }
+            int[] warehousePartitions = new int[warehouseList.size()];
+            for (int i = 0; i < warehouseList.size(); i++) {
+                warehousePartitions[i] = findNearestCentroid(centroids, warehouseList.get(i).getLocation());
+            }
+            if (partitionCount == 1 || balanceCapacity(storeList, storePartitions, warehouseList, warehousePartitions,
+                    centroids, capacityMargin)) {
+                return createPartitions(solution, partitionCount, storePartitions, warehousePartitions);
+            }
+            partitionCount--;
+        }
+    }
+
+    /**
+     * Lloyd's algorithm, seeded with k-means++ so the initial centroids are spread out.
+     * @return never null, the latitude and longitude of every centroid
+     */
+    private double[][] clusterStores(List<Store> storeList, int partitionCount, Random random) {
+        int storeListSize = storeList.size();
+        double[][] centroids = new double[partitionCount][];
+        FlpLocation firstLocation = storeList.get(random.nextInt(storeListSize)).getLocation();
+        centroids[0] = new double[]{firstLocation.getLatitude(), firstLocation.getLongitude()};
+        double[] squaredDistances = new double[storeListSize];
+        Arrays.fill(squaredDistances, Double.MAX_VALUE);
+        for (int k = 1; k < partitionCount; k++) {
+            double squaredDistanceSum = 0.0;
+            for (int j = 0; j < storeListSize; j++) {
+                squaredDistances[j] = Math.min(squaredDistances[j],
+                        calculateSquaredDistance(centroids[k - 1], storeList.get(j).getLocation()));
+                squaredDistanceSum += squaredDistances[j];
+            }
+            // Pick the next centroid with a probability proportional to its squared distance to the nearest one
+            double target = random.nextDouble() * squaredDistanceSum;
+            int j = 0;
+            while (j < storeListSize - 1 && target >= squaredDistances[j]) {
+                target -= squaredDistances[j];
+                j++;
+            }
+            FlpLocation location = storeList.get(j).getLocation();
+            centroids[k] = new double[]{location.getLatitude(), location.getLongitude()};
+        }
+
+        int[] storePartitions = new int[storeListSize];
+        Arrays.fill(storePartitions, -1);
+        for (int iteration = 0; iteration < MAXIMUM_ITERATION_COUNT; iteration++) {
+            boolean changed = false;
+            for (int j = 0; j < storeListSize; j++) {
+                int partition = findNearestCentroid(centroids, storeList.get(j).getLocation());
+                if (partition != storePartitions[j]) {
+                    storePartitions[j] = partition;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+            double[][] sums = new double[partitionCount][2];
+            int[] counts = new int[partitionCount];
+            for (int j = 0; j < storeListSize; j++) {
+                FlpLocation location = storeList.get(j).getLocation();
+                int partition = storePartitions[j];
+                sums[partition][0] += location.getLatitude();
+                sums[partition][1] += location.getLongitude();
+                counts[partition]++;
+            }
+            for (int k = 0; k < partitionCount; k++) {
+                // An empty cluster keeps its centroid
+                if (counts[k] > 0) {
+                    centroids[k][0] = sums[k][0] / counts[k];
+                    centroids[k][1] = sums[k][1] / counts[k];
+                }
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * Moves warehouses to the partitions that lack capacity, nearest to their centroid first,
+     * but only from partitions that still have enough capacity without them.
+     * @return true if every partition has at least its demand multiplied by the capacityMargin in capacity
+     */
+    private boolean balanceCapacity(List<Store> storeList, int[] storePartitions,
+            List<Warehouse> warehouseList, int[] warehousePartitions, double[][] centroids, double capacityMargin) {
+        int partitionCount = centroids.length;
+        long[] requiredCapacities = new long[partitionCount];
+        for (int j = 0; j < storeList.size(); j++) {
+            requiredCapacities[storePartitions[j]] += storeList.get(j).getDemand();
+        }
+        for (int k = 0; k < partitionCount; k++) {
+            requiredCapacities[k] = (long) Math.ceil(requiredCapacities[k] * capacityMargin);
+        }
+        long[] capacities = new long[partitionCount];
+        for (int i = 0; i < warehouseList.size(); i++) {
+            capacities[warehousePartitions[i]] += warehouseList.get(i).getCapacity();
+        }
+        for (int k = 0; k < partitionCount; k++) {
+            while (capacities[k] < requiredCapacities[k]) {
+                int nearestIndex = -1;
+                double nearestSquaredDistance = Double.MAX_VALUE;
+                for (int i = 0; i < warehouseList.size(); i++) {
+                    int otherPartition = warehousePartitions[i];
+                    if (otherPartition == k) {
+                        continue;
+                    }
+                    Warehouse warehouse = warehouseList.get(i);
+                    if (capacities[otherPartition] - warehouse.getCapacity() < requiredCapacities[otherPartition]) {
+                        continue;
+                    }
+                    double squaredDistance = calculateSquaredDistance(centroids[k], warehouse.getLocation());
+                    if (squaredDistance < nearestSquaredDistance) {
+                        nearestSquaredDistance = squaredDistance;
+                        nearestIndex = i;
+                    }
+                }
+                if (nearestIndex < 0) {
+                    return false;
+                }
+                int capacity = warehouseList.get(nearestIndex).getCapacity();
+                capacities[warehousePartitions[nearestIndex]] -= capacity;
+                capacities[k] += capacity;
+                warehousePartitions[nearestIndex] = k;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The warehouses are problem facts, so the partitions share them with the working solution.
+     * The stores are copied with the same id, so the partitioned search can locate their working counterparts.
+     */
+    private List<FlpSolution> createPartitions(FlpSolution solution, int partitionCount,
+            int[] storePartitions, int[] warehousePartitions) {
+        List<Store> storeList = solution.getStoreList();
+        List<Warehouse> warehouseList = solution.getWarehouseList();
+        List<FlpSolution> partitionList = new ArrayList<>(partitionCount);
+        for (int k = 0; k < partitionCount; k++) {
+            FlpSolution partition = new FlpSolution();
+            partition.setId(solution.getId());
+            partition.setLocationList(solution.getLocationList());
+            partition.setWarehouseList(new ArrayList<>());
+            partition.setStoreList(new ArrayList<>());
+            partitionList.add(partition);
+        }
+        Map<Warehouse, Integer> warehousePartitionMap = new IdentityHashMap<>(warehouseList.size());
+        for (int i = 0; i < warehouseList.size(); i++) {
+            Warehouse warehouse = warehouseList.get(i);
+            partitionList.get(warehousePartitions[i]).getWarehouseList().add(warehouse);
+            warehousePartitionMap.put(warehouse, warehousePartitions[i]);
+        }
+        for (int j = 0; j < storeList.size(); j++) {
+            Store store = storeList.get(j);
+            int partition = storePartitions[j];
+            Store partitionStore = new Store();
+            partitionStore.setId(store.getId());
+            partitionStore.setLocation(store.getLocation());
+            partitionStore.setDemand(store.getDemand());
+            // Indexed by id, so it still works for the subset of stores and warehouses
+            partitionStore.setDistanceMatrix(store.getDistanceMatrix());
+            Warehouse warehouse = store.getWarehouse();
+            if (warehouse != null && warehousePartitionMap.get(warehouse) == partition) {
+                partitionStore.setWarehouse(warehouse);
+            }
+            partitionList.get(partition).getStoreList().add(partitionStore);
+        }
+        // An empty cluster has no stores to solve, its warehouses are still available to the other phases
+        partitionList.removeIf(partition -> partition.getStoreList().isEmpty());
+        for (FlpSolution partition : partitionList) {
+            partition.initNearbyWarehouses(Math.min(FlpSolution.NEARBY_WAREHOUSE_LIST_SIZE,
+                    partition.getWarehouseList().size()));
+        }
+        return partitionList;
+    }
+
+    private static int findNearestCentroid(double[][] centroids, FlpLocation location) {
+        int nearestPartition = 0;
+        double nearestSquaredDistance = Double.MAX_VALUE;
+        for (int k = 0; k < centroids.length; k++) {
+            double squaredDistance = calculateSquaredDistance(centroids[k], location);
+            if (squaredDistance < nearestSquaredDistance) {
+                nearestSquaredDistance = squaredDistance;
+                nearestPartition = k;
+            }
+        }
+        return nearestPartition;
+    }
+
+    private static double calculateSquaredDistance(double[] centroid, FlpLocation location) {
+        double latitudeDifference = location.getLatitude() - centroid[0];
+        double longitudeDifference = location.getLongitude() - centroid[1];
+        return latitudeDifference * latitudeDifference + longitudeDifference * longitudeDifference;
+    }
+
+}
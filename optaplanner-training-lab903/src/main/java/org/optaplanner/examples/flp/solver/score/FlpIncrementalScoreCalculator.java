@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaplanner.examples.flp.solver.score;
+
+import java.util.List;
+
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.core.impl.score.director.incremental.IncrementalScoreCalculator;
+import org.optaplanner.examples.flp.domain.FlpSolution;
+import org.optaplanner.examples.flp.domain.Store;
+import org.optaplanner.examples.flp.domain.Warehouse;
+
+/**
+ * Tracks the store count, the used demand and the capacity overflow of every warehouse,
+ * indexed by {@link Warehouse#getId()}, so moving a store updates the score in constant time.
+ * <p>
+ * Hard: the demand that exceeds the capacity of a warehouse.
+ * Soft: the setup cost of every warehouse that has at least 1 store plus the distance of every store to its warehouse.
+ */
+public class FlpIncrementalScoreCalculator implements IncrementalScoreCalculator<FlpSolution> {
+
+    private int[] storeCounts;
+    private int[] usedDemands;
+    private int[] capacities;
+
+    private long hardScore;
+    private long softScore;
+
+    @Override
+    public void resetWorkingSolution(FlpSolution solution) {
+        List<Warehouse> warehouseList = solution.getWarehouseList();
+        // Ids are the index in the warehouseList, except in a partition, which only has some of the warehouses
+        int idCount = warehouseList.stream().mapToInt(warehouse -> warehouse.getId().intValue() + 1).max().orElse(0);
+        storeCounts = new int[idCount];
+        usedDemands = new int[idCount];
+        capacities = new int[idCount];
+        for (Warehouse warehouse : warehouseList) {
+            capacities[warehouse.getId().intValue()] = warehouse.getCapacity();
+        }
+        hardScore = 0L;
+        softScore = 0L;
+        for (Store store : solution.getStoreList()) {
+            insert(store);
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(Object entity) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(Object entity) {
+        insert((Store) entity);
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+        retract((Store) entity);
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+        insert((Store) entity);
+    }
+
+    @Override
+    public void beforeEntityRemoved(Object entity) {
+        retract((Store) entity);
+    }
+
+    @Override
+    public void afterEntityRemoved(Object entity) {
+        // Do nothing
+    }
+
+    private void insert(Store store) {
+        Warehouse warehouse = store.getWarehouse();
+        if (warehouse == null) {
+            return;
+        }
+        int index = warehouse.getId().intValue();
+        if (storeCounts[index] == 0) {
+            softScore -= warehouse.getSetupCost();
+        }
+        storeCounts[index]++;
+        int oldOverflow = Math.max(0, usedDemands[index] - capacities[index]);
+        usedDemands[index] += store.getDemand();
+        int newOverflow = Math.max(0, usedDemands[index] - capacities[index]);
+        hardScore -= newOverflow - oldOverflow;
+        softScore -= store.getDistanceToWarehouse();
+    }
+
+    private void retract(Store store) {
+        Warehouse warehouse = store.getWarehouse();
+        if (warehouse == null) {
+            return;
+        }
+        int index = warehouse.getId().intValue();
+        storeCounts[index]--;
+        if (storeCounts[index] == 0) {
+            softScore += warehouse.getSetupCost();
+        }
+        int oldOverflow = Math.max(0, usedDemands[index] - capacities[index]);
+        usedDemands[index] -= store.getDemand();
+        int newOverflow = Math.max(0, usedDemands[index] - capacities[index]);
+        hardScore += oldOverflow - newOverflow;
+        softScore += store.getDistanceToWarehouse();
+    }
+
+    @Override
+    public Score calculateScore(int initScore) {
+        return HardSoftLongScore.valueOf(initScore, hardScore, softScore);
+    }
+
+}